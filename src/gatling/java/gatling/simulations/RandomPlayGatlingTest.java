@@ -0,0 +1,179 @@
+package gatling.simulations;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.*;
+
+import io.gatling.javaapi.core.*;
+import io.gatling.javaapi.http.*;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Performance test of the random-play flow, against the users, video lists and videos generated by
+ * {@code site.randomvideo.config.LoadTestDataLoader}.
+ * <p>
+ * Two scenarios run side by side:
+ * <ul>
+ *     <li>anonymous viewers open a video list page, get its videos, then go through the playback
+ *     order with the "next" button, which fetches a new page every {@value #PLAYBACK_PAGE_SIZE} videos;</li>
+ *     <li>logged-in editors create a video, add it to one of their video lists, then remove and delete it.</li>
+ * </ul>
+ * The concurrency of each scenario is set with {@code -Dusers} and {@code -Deditors}, the ramp-up and
+ * the steady state durations (in seconds) with {@code -Dramp} and {@code -Dduration}.
+ */
+public class RandomPlayGatlingTest extends Simulation {
+
+    private static final int PLAYBACK_PAGE_SIZE = 10;
+
+    String baseURL = System.getProperty("baseURL", "http://localhost:8080");
+
+    int seededUsers = Integer.getInteger("loadtest.users", 100);
+
+    int seededVideoListsPerUser = Integer.getInteger("loadtest.video-lists-per-user", 5);
+
+    String password = System.getProperty("loadtest.password", "loadtest");
+
+    int viewers = Integer.getInteger("users", 100);
+
+    int editors = Integer.getInteger("editors", 10);
+
+    Duration ramp = Duration.ofSeconds(Integer.getInteger("ramp", 10));
+
+    Duration duration = Duration.ofSeconds(Integer.getInteger("duration", 60));
+
+    int playbackPages = Integer.getInteger("playbackPages", 3);
+
+    int editsPerSession = Integer.getInteger("editsPerSession", 5);
+
+    HttpProtocolBuilder httpConf = http
+        .baseUrl(baseURL)
+        .inferHtmlResources()
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .acceptLanguageHeader("en-US,en;q=0.5")
+        .connectionHeader("keep-alive")
+        .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10.10; rv:33.0) Gecko/20100101 Firefox/33.0")
+        .silentResources();
+
+    Map<String, String> headersHttp = Map.of("Accept", "application/json");
+
+    Map<String, String> headersHttpAuthentication = Map.of("Content-Type", "application/json", "Accept", "application/json");
+
+    Map<String, String> headersHttpAuthenticated = Map.of("Accept", "application/json", "Authorization", "Bearer #{access_token}");
+
+    Iterator<Map<String, Object>> videoListFeeder = Stream
+        .generate(() ->
+            Map.<String, Object>of(
+                "slug",
+                "loadtest-" + ThreadLocalRandom.current().nextInt(seededUsers) + "-" + ThreadLocalRandom.current().nextInt(seededVideoListsPerUser)
+            )
+        )
+        .iterator();
+
+    Iterator<Map<String, Object>> editorFeeder = Stream
+        .generate(() ->
+            Map.<String, Object>of(
+                "login",
+                "loadtest-" + ThreadLocalRandom.current().nextInt(seededUsers),
+                "youtubeId",
+                Long.toString(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE), 36)
+            )
+        )
+        .iterator();
+
+    ChainBuilder play = exec(flushHttpCache())
+        .feed(videoListFeeder)
+        .exec(http("Open video list page").get("/#{slug}").header("Accept", "text/html").check(status().is(200)))
+        .exec(http("Get videos by slug").get("/api/video-lists/by-slug/#{slug}").headers(headersHttp).check(status().is(200)))
+        .exec(
+            http("Start playback")
+                .get("/api/video-lists/by-slug/#{slug}/playback?size=" + PLAYBACK_PAGE_SIZE)
+                .headers(headersHttp)
+                .check(status().is(200))
+                .check(jsonPath("$.nextCursor").optional().saveAs("nextCursor"))
+        )
+        .repeat(playbackPages)
+        .on(
+            doIf(session -> session.contains("nextCursor"))
+                .then(
+                    // one "next" click per video of the page, the next page is fetched when running out of videos
+                    pause(Duration.ofSeconds(PLAYBACK_PAGE_SIZE), Duration.ofSeconds(3L * PLAYBACK_PAGE_SIZE))
+                        .exec(session -> session.set("cursor", session.getString("nextCursor")).remove("nextCursor"))
+                        .exec(
+                            http("Next playback page")
+                                .get("/api/video-lists/by-slug/#{slug}/playback")
+                                .queryParam("size", PLAYBACK_PAGE_SIZE)
+                                .queryParam("cursor", "#{cursor}")
+                                .headers(headersHttp)
+                                .check(status().is(200))
+                                .check(jsonPath("$.nextCursor").optional().saveAs("nextCursor"))
+                        )
+                )
+        );
+
+    ChainBuilder edit = exec(flushHttpCache())
+        .feed(editorFeeder)
+        .exec(
+            http("Authentication")
+                .post("/api/authenticate")
+                .headers(headersHttpAuthentication)
+                .body(StringBody("{\"username\":\"#{login}\", \"password\":\"" + password + "\"}"))
+                .asJson()
+                .check(status().is(200))
+                .check(jsonPath("$.id_token").saveAs("access_token"))
+        )
+        .exec(
+            http("Get own video lists")
+                .get("/api/video-lists?user=current")
+                .headers(headersHttpAuthenticated)
+                .check(status().is(200))
+                .check(jsonPath("$[0].id").saveAs("videoListId"))
+        )
+        .repeat(editsPerSession, "edit")
+        .on(
+            exec(
+                http("Create new video")
+                    .post("/api/videos")
+                    .headers(headersHttpAuthenticated)
+                    .body(StringBody("{\"url\":\"https://youtu.be/#{youtubeId}#{edit}\", \"name\":\"Load test #{edit}\"}"))
+                    .asJson()
+                    .check(status().is(201))
+                    .check(jsonPath("$.id").saveAs("videoId"))
+            )
+                .exec(
+                    http("Add video to video list")
+                        .post("/api/video-lists/#{videoListId}/videos")
+                        .headers(headersHttpAuthenticated)
+                        .body(StringBody("[#{videoId}]"))
+                        .asJson()
+                        .check(status().is(204))
+                )
+                .pause(Duration.ofSeconds(1), Duration.ofSeconds(5))
+                .exec(
+                    http("Remove video from video list")
+                        .delete("/api/video-lists/#{videoListId}/videos")
+                        .headers(headersHttpAuthenticated)
+                        .body(StringBody("[#{videoId}]"))
+                        .asJson()
+                        .check(status().is(204))
+                )
+                .exec(http("Delete created video").delete("/api/videos/#{videoId}").headers(headersHttpAuthenticated).check(status().is(204)))
+                .pause(Duration.ofSeconds(1), Duration.ofSeconds(5))
+        );
+
+    ScenarioBuilder viewerScenario = scenario("Anonymous random play").exec(play);
+
+    ScenarioBuilder editorScenario = scenario("Video list editing").exec(edit);
+
+    {
+        setUp(
+            viewerScenario.injectClosed(rampConcurrentUsers(0).to(viewers).during(ramp), constantConcurrentUsers(viewers).during(duration)),
+            editorScenario.injectClosed(rampConcurrentUsers(0).to(editors).during(ramp), constantConcurrentUsers(editors).during(duration))
+        )
+            .protocols(httpConf)
+            .assertions(global().successfulRequests().percent().gt(99.0));
+    }
+}
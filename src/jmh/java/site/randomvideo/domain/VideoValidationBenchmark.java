@@ -0,0 +1,52 @@
+package site.randomvideo.domain;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of the Bean Validation of a {@link Video}, dominated by the {@code @Pattern} on its URL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VideoValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private Video validVideo;
+
+    private Video invalidVideo;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validVideo = new Video().name("Valid").url("https://www.youtube.com/watch?v=dQw4w9WgXcQ&t=42");
+        invalidVideo = new Video().name("Invalid").url("https://example.com/watch?v=dQw4w9WgXcQ&t=42");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Video>> validateValidUrl() {
+        return validator.validate(validVideo);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Video>> validateInvalidUrl() {
+        return validator.validate(invalidVideo);
+    }
+}
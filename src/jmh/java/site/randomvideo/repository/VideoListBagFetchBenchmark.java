@@ -0,0 +1,52 @@
+package site.randomvideo.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import site.randomvideo.domain.VideoList;
+
+/**
+ * Benchmark of the in-memory part of {@link VideoListRepositoryWithBagRelationshipsImpl#fetchVideos(List)}:
+ * indexing the ids of the video lists, and putting the fetched video lists back in their original order.
+ * <p>
+ * The join fetch queries themselves need a database and are left to the load tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VideoListBagFetchBenchmark {
+
+    @Param({ "10", "500", "5000" })
+    private int size;
+
+    private List<VideoList> videoLists;
+
+    private List<VideoList> fetched;
+
+    @Setup
+    public void setUp() {
+        videoLists = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            videoLists.add(new VideoList().id(id * 7));
+        }
+        // the database returns the rows of a chunk in no particular order
+        fetched = new ArrayList<>(videoLists);
+        Collections.shuffle(fetched, new Random(42));
+    }
+
+    @Benchmark
+    public VideoList[] reorder() {
+        VideoListRepositoryWithBagRelationshipsImpl.IdIndex order = new VideoListRepositoryWithBagRelationshipsImpl.IdIndex(videoLists);
+        VideoList[] result = new VideoList[videoLists.size()];
+        for (VideoList videoList : fetched) {
+            result[order.indexOf(videoList.getId())] = videoList;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package site.randomvideo.service;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import site.randomvideo.domain.Video;
+
+/**
+ * Benchmark of YouTube URL parsing: {@link VideoImportService#parseDump} on a pasted dump, and a
+ * Java port of the {@code getVideoIdAndQueryParams} function of the random video page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VideoUrlParsingBenchmark {
+
+    @Param({ "10", "500", "5000" })
+    private int size;
+
+    private VideoImportService videoImportService;
+
+    private String dump;
+
+    private String[] urls;
+
+    @Setup
+    public void setUp() {
+        // parsing a dump uses none of the collaborators
+        videoImportService = new VideoImportService(null, null, null, null);
+        StringBuilder builder = new StringBuilder();
+        urls = new String[size];
+        for (int i = 0; i < size; i++) {
+            urls[i] = i % 2 == 0
+                ? "https://www.youtube.com/watch?v=" + Integer.toString(i, 36) + "&t=" + i
+                : "youtu.be/" + Integer.toString(i, 36) + "?autoplay=1";
+            builder.append(urls[i]).append(" Video ").append(i).append('\n');
+        }
+        dump = builder.toString();
+    }
+
+    @Benchmark
+    public List<Video> parseDump() {
+        return videoImportService.parseDump(dump);
+    }
+
+    @Benchmark
+    public int getVideoIdAndQueryParams() {
+        int length = 0;
+        for (String url : urls) {
+            String videoIdAndQueryParams = getVideoIdAndQueryParams(url);
+            length += videoIdAndQueryParams == null ? 0 : videoIdAndQueryParams.length();
+        }
+        return length;
+    }
+
+    private static String getVideoIdAndQueryParams(String url) {
+        URI uri = URI.create(url.startsWith("https://") ? url : "https://" + url);
+        String host = uri.getHost();
+        String query = uri.getRawQuery() == null ? "" : uri.getRawQuery();
+        if (host.endsWith("youtu.be")) {
+            return uri.getPath().substring(1) + "?" + query;
+        } else if (host.endsWith("youtube.com")) {
+            String videoId = null;
+            StringBuilder others = new StringBuilder();
+            for (String param : query.split("&")) {
+                if (param.startsWith("v=")) {
+                    videoId = param.substring(2);
+                } else if (!param.isEmpty()) {
+                    others.append(others.length() == 0 ? "" : "&").append(param);
+                }
+            }
+            return videoId + "?" + others;
+        }
+        return null;
+    }
+}
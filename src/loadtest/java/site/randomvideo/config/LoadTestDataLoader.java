@@ -0,0 +1,201 @@
+package site.randomvideo.config;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import site.randomvideo.security.AuthoritiesConstants;
+
+/**
+ * Generate the users, video lists and videos used by the Gatling load tests, when the application
+ * starts with the "loadtest" profile. Only built with the "gatling" Maven profile, like the H2 driver.
+ * <p>
+ * User {@code n} has the login {@code loadtest-n}, the password {@code application.load-test.password},
+ * and the video lists with the slugs {@code loadtest-n-0}, {@code loadtest-n-1}, etc. Each video list
+ * holds a window of the user's videos.
+ * <p>
+ * The rows are written with JDBC batches, as the Hibernate caches are still empty at startup.
+ */
+@Component
+@Profile(Constants.SPRING_PROFILE_LOAD_TEST)
+public class LoadTestDataLoader implements ApplicationRunner {
+
+    public static final String LOGIN_PREFIX = "loadtest-";
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String COUNT_USERS_SQL = "SELECT COUNT(*) FROM jhi_user WHERE login LIKE '" + LOGIN_PREFIX + "%'";
+
+    private static final String INSERT_USER_SQL =
+        "INSERT INTO jhi_user (login, password_hash, email, activated, lang_key, created_by, created_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String FIND_USER_IDS_SQL = "SELECT id FROM jhi_user WHERE login LIKE '" + LOGIN_PREFIX + "%' ORDER BY id";
+
+    private static final String INSERT_USER_AUTHORITY_SQL = "INSERT INTO jhi_user_authority (user_id, authority_name) VALUES (?, ?)";
+
+    private static final String INSERT_XUSER_SQL = "INSERT INTO x_user (internal_user_id, video_count, video_list_count) VALUES (?, ?, ?)";
+
+    private static final String FIND_XUSER_IDS_SQL =
+        "SELECT x_user.id FROM x_user JOIN jhi_user ON jhi_user.id = x_user.internal_user_id " +
+        "WHERE jhi_user.login LIKE '" +
+        LOGIN_PREFIX +
+        "%' ORDER BY jhi_user.id";
+
+    private static final String INSERT_VIDEO_LIST_SQL = "INSERT INTO video_list (name, slug, x_user_id) VALUES (?, ?, ?)";
+
+    private static final String FIND_VIDEO_LISTS_SQL = "SELECT id, x_user_id FROM video_list WHERE slug LIKE '" + LOGIN_PREFIX + "%' ORDER BY id";
+
+    private static final String INSERT_VIDEO_SQL = "INSERT INTO video (url, name, x_user_id) VALUES (?, ?, ?)";
+
+    private static final String FIND_VIDEOS_SQL = "SELECT id, x_user_id FROM video ORDER BY id";
+
+    private static final String INSERT_VIDEO_LIST_VIDEO_SQL = "INSERT INTO rel_video_list__video (video_list_id, video_id) VALUES (?, ?)";
+
+    private final Logger log = LoggerFactory.getLogger(LoadTestDataLoader.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ApplicationProperties.LoadTest loadTest;
+
+    public LoadTestDataLoader(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.loadTest = applicationProperties.getLoadTest();
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        Integer existingUsers = jdbcTemplate.queryForObject(COUNT_USERS_SQL, Integer.class);
+        if (existingUsers != null && existingUsers > 0) {
+            log.info("Load test data already present, {} users", existingUsers);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int videosPerVideoList = Math.min(loadTest.getVideosPerVideoList(), loadTest.getVideosPerUser());
+
+        // the password is hashed once, as hashing it for every user would take longer than writing all the data
+        String passwordHash = passwordEncoder.encode(loadTest.getPassword());
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Integer> users = IntStream.range(0, loadTest.getUsers()).boxed().toList();
+        jdbcTemplate.batchUpdate(
+            INSERT_USER_SQL,
+            users,
+            BATCH_SIZE,
+            (ps, user) -> {
+                ps.setString(1, LOGIN_PREFIX + user);
+                ps.setString(2, passwordHash);
+                ps.setString(3, LOGIN_PREFIX + user + "@localhost");
+                ps.setBoolean(4, true);
+                ps.setString(5, Constants.DEFAULT_LANGUAGE);
+                ps.setString(6, Constants.SYSTEM);
+                ps.setTimestamp(7, now);
+            }
+        );
+        List<Long> userIds = jdbcTemplate.queryForList(FIND_USER_IDS_SQL, Long.class);
+        jdbcTemplate.batchUpdate(
+            INSERT_USER_AUTHORITY_SQL,
+            userIds,
+            BATCH_SIZE,
+            (ps, userId) -> {
+                ps.setLong(1, userId);
+                ps.setString(2, AuthoritiesConstants.USER);
+            }
+        );
+        jdbcTemplate.batchUpdate(
+            INSERT_XUSER_SQL,
+            userIds,
+            BATCH_SIZE,
+            (ps, userId) -> {
+                ps.setLong(1, userId);
+                ps.setInt(2, loadTest.getVideosPerUser());
+                ps.setInt(3, loadTest.getVideoListsPerUser());
+            }
+        );
+        List<Long> xUserIds = jdbcTemplate.queryForList(FIND_XUSER_IDS_SQL, Long.class);
+
+        List<int[]> videoLists = new ArrayList<>();
+        List<int[]> videos = new ArrayList<>();
+        for (int user = 0; user < xUserIds.size(); user++) {
+            for (int i = 0; i < loadTest.getVideoListsPerUser(); i++) {
+                videoLists.add(new int[] { user, i });
+            }
+            for (int i = 0; i < loadTest.getVideosPerUser(); i++) {
+                videos.add(new int[] { user, i });
+            }
+        }
+        jdbcTemplate.batchUpdate(
+            INSERT_VIDEO_LIST_SQL,
+            videoLists,
+            BATCH_SIZE,
+            (ps, videoList) -> {
+                ps.setString(1, "Load test " + videoList[0] + "-" + videoList[1]);
+                ps.setString(2, LOGIN_PREFIX + videoList[0] + "-" + videoList[1]);
+                ps.setLong(3, xUserIds.get(videoList[0]));
+            }
+        );
+        jdbcTemplate.batchUpdate(
+            INSERT_VIDEO_SQL,
+            videos,
+            BATCH_SIZE,
+            (ps, video) -> {
+                ps.setString(1, "https://www.youtube.com/watch?v=" + String.format("lt%04d%05d", video[0], video[1]));
+                ps.setString(2, "Video " + video[0] + "-" + video[1]);
+                ps.setLong(3, xUserIds.get(video[0]));
+            }
+        );
+
+        // each video list of a user holds the next window of the user's videos, wrapping around
+        Map<Long, List<Long>> videoIdsByXUserId = idsByXUserId(FIND_VIDEOS_SQL);
+        Map<Long, List<Long>> videoListIdsByXUserId = idsByXUserId(FIND_VIDEO_LISTS_SQL);
+        List<long[]> videoListVideos = new ArrayList<>();
+        videoListIdsByXUserId.forEach((xUserId, videoListIds) -> {
+            List<Long> videoIds = videoIdsByXUserId.getOrDefault(xUserId, List.of());
+            for (int i = 0; i < videoListIds.size() && !videoIds.isEmpty(); i++) {
+                for (int j = 0; j < videosPerVideoList; j++) {
+                    videoListVideos.add(new long[] { videoListIds.get(i), videoIds.get((i * videosPerVideoList + j) % videoIds.size()) });
+                }
+            }
+        });
+        jdbcTemplate.batchUpdate(
+            INSERT_VIDEO_LIST_VIDEO_SQL,
+            videoListVideos,
+            BATCH_SIZE,
+            (ps, videoListVideo) -> {
+                ps.setLong(1, videoListVideo[0]);
+                ps.setLong(2, videoListVideo[1]);
+            }
+        );
+
+        log.info(
+            "Generated load test data in {} ms: {} users, {} video lists, {} videos, {} video list entries",
+            System.currentTimeMillis() - start,
+            xUserIds.size(),
+            videoLists.size(),
+            videos.size(),
+            videoListVideos.size()
+        );
+    }
+
+    private Map<Long, List<Long>> idsByXUserId(String sql) {
+        Map<Long, List<Long>> idsByXUserId = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            idsByXUserId.computeIfAbsent(rs.getLong(2), xUserId -> new ArrayList<>()).add(rs.getLong(1));
+        });
+        return idsByXUserId;
+    }
+}
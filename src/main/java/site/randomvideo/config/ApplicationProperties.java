@@ -1,5 +1,7 @@
 package site.randomvideo.config;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +12,499 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Repository repository = new Repository();
+
+    private final LoadTest loadTest = new LoadTest();
+
+    private final SqlBudget sqlBudget = new SqlBudget();
+
+    private final JwtCache jwtCache = new JwtCache();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final LoginRateLimit loginRateLimit = new LoginRateLimit();
+
+    private final Cache cache = new Cache();
+
     // jhipster-needle-application-properties-property
+
+    public Repository getRepository() {
+        return repository;
+    }
+
+    public LoadTest getLoadTest() {
+        return loadTest;
+    }
+
+    public SqlBudget getSqlBudget() {
+        return sqlBudget;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public LoginRateLimit getLoginRateLimit() {
+        return loginRateLimit;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Repository {
+
+        /**
+         * Number of video lists whose videos are fetched by a single query when eager loading many video lists.
+         * A query returns one row per video of these video lists, up to this number times 5000.
+         */
+        private int bagFetchChunkSize = 10;
+
+        public int getBagFetchChunkSize() {
+            return bagFetchChunkSize;
+        }
+
+        public void setBagFetchChunkSize(int bagFetchChunkSize) {
+            this.bagFetchChunkSize = bagFetchChunkSize;
+        }
+    }
+
+    public static class LoadTest {
+
+        /**
+         * Number of users generated for the load tests, with the logins {@code loadtest-0}, {@code loadtest-1}, etc.
+         */
+        private int users = 100;
+
+        /**
+         * Number of video lists generated per user, with the slugs {@code loadtest-<user>-0}, {@code loadtest-<user>-1}, etc.
+         */
+        private int videoListsPerUser = 5;
+
+        /**
+         * Number of videos generated per user.
+         */
+        private int videosPerUser = 200;
+
+        /**
+         * Number of videos of the user put in each of the user's video lists.
+         */
+        private int videosPerVideoList = 50;
+
+        /**
+         * Password of all the generated users.
+         */
+        private String password = "loadtest";
+
+        public int getUsers() {
+            return users;
+        }
+
+        public void setUsers(int users) {
+            this.users = users;
+        }
+
+        public int getVideoListsPerUser() {
+            return videoListsPerUser;
+        }
+
+        public void setVideoListsPerUser(int videoListsPerUser) {
+            this.videoListsPerUser = videoListsPerUser;
+        }
+
+        public int getVideosPerUser() {
+            return videosPerUser;
+        }
+
+        public void setVideosPerUser(int videosPerUser) {
+            this.videosPerUser = videosPerUser;
+        }
+
+        public int getVideosPerVideoList() {
+            return videosPerVideoList;
+        }
+
+        public void setVideosPerVideoList(int videosPerVideoList) {
+            this.videosPerVideoList = videosPerVideoList;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+
+    public static class SqlBudget {
+
+        /**
+         * Whether the SQL statements of the requests are counted. Read by the {@code MetricsConfiguration}, which
+         * then wraps the connections of the counted requests in proxies, so this is off unless configured.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Share of the requests whose SQL statements are counted, between 0 and 1.
+         */
+        private double sampleRate = 1.0;
+
+        /**
+         * Maximum number of SQL statements per request, for the REST endpoints without a {@code @SqlStatementBudget}. 0 for no limit.
+         */
+        private int defaultStatements = 0;
+
+        /**
+         * Share of the requests over their budget which are logged, between 0 and 1.
+         */
+        private double logSampleRate = 0.1;
+
+        /**
+         * Log every request over its budget and keep it, so that the integration tests fail.
+         */
+        private boolean failOnViolation = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getDefaultStatements() {
+            return defaultStatements;
+        }
+
+        public void setDefaultStatements(int defaultStatements) {
+            this.defaultStatements = defaultStatements;
+        }
+
+        public double getLogSampleRate() {
+            return logSampleRate;
+        }
+
+        public void setLogSampleRate(double logSampleRate) {
+            this.logSampleRate = logSampleRate;
+        }
+
+        public boolean isFailOnViolation() {
+            return failOnViolation;
+        }
+
+        public void setFailOnViolation(boolean failOnViolation) {
+            this.failOnViolation = failOnViolation;
+        }
+    }
+    public static class JwtCache {
+
+        /**
+         * Maximum number of verified tokens kept to skip checking their signature again, 0 to disable the cache.
+         * Read by the {@code SecurityJwtConfiguration}.
+         */
+        private int maxEntries = 10000;
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Maximum number of emails waiting in memory to be sent. Past it, the emails wait in the outbox table for the next poll.
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * Maximum number of emails sent over a single connection to the mail server.
+         */
+        private int batchSize = 20;
+
+        /**
+         * Number of attempts to send an email before giving up on it.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the first retry of an email, doubled after every failed attempt.
+         */
+        private long retryBackoffSeconds = 30;
+
+        /**
+         * Maximum delay between two attempts to send an email.
+         */
+        private long maxRetryBackoffSeconds = 3600;
+
+        /**
+         * Delay after which an email queued in memory but not sent, for instance because the application stopped, is picked up again from the outbox table.
+         */
+        private long leaseSeconds = 300;
+
+        /**
+         * Delay between two polls of the outbox table, for the emails to retry or left over by a stop of the application.
+         */
+        private long pollIntervalSeconds = 30;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getRetryBackoffSeconds() {
+            return retryBackoffSeconds;
+        }
+
+        public void setRetryBackoffSeconds(long retryBackoffSeconds) {
+            this.retryBackoffSeconds = retryBackoffSeconds;
+        }
+
+        public long getMaxRetryBackoffSeconds() {
+            return maxRetryBackoffSeconds;
+        }
+
+        public void setMaxRetryBackoffSeconds(long maxRetryBackoffSeconds) {
+            this.maxRetryBackoffSeconds = maxRetryBackoffSeconds;
+        }
+
+        public long getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(long leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+
+        public long getPollIntervalSeconds() {
+            return pollIntervalSeconds;
+        }
+
+        public void setPollIntervalSeconds(long pollIntervalSeconds) {
+            this.pollIntervalSeconds = pollIntervalSeconds;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        /**
+         * Cost of the bcrypt hashes. The hashes of a lower cost are upgraded at the next login of their user.
+         */
+        private int bcryptStrength = 10;
+
+        /**
+         * Number of passwords hashed at once, the CPU left to the other requests.
+         */
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /**
+         * Maximum number of passwords waiting to be hashed. Past it, the requests are rejected.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Maximum time a request waits for its password to be hashed before being rejected.
+         */
+        private long timeoutMillis = 5000;
+
+        public int getBcryptStrength() {
+            return bcryptStrength;
+        }
+
+        public void setBcryptStrength(int bcryptStrength) {
+            this.bcryptStrength = bcryptStrength;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+
+    public static class LoginRateLimit {
+
+        /**
+         * Whether the requests hashing a password are rate limited.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of requests a client IP address can send at once.
+         */
+        private int ipCapacity = 20;
+
+        /**
+         * Number of requests a client IP address can send per minute once its capacity is used.
+         */
+        private int ipRefillPerMinute = 10;
+
+        /**
+         * Number of login attempts on a single account at once.
+         */
+        private int loginCapacity = 5;
+
+        /**
+         * Number of login attempts on a single account per minute once its capacity is used.
+         */
+        private int loginRefillPerMinute = 2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getIpCapacity() {
+            return ipCapacity;
+        }
+
+        public void setIpCapacity(int ipCapacity) {
+            this.ipCapacity = ipCapacity;
+        }
+
+        public int getIpRefillPerMinute() {
+            return ipRefillPerMinute;
+        }
+
+        public void setIpRefillPerMinute(int ipRefillPerMinute) {
+            this.ipRefillPerMinute = ipRefillPerMinute;
+        }
+
+        public int getLoginCapacity() {
+            return loginCapacity;
+        }
+
+        public void setLoginCapacity(int loginCapacity) {
+            this.loginCapacity = loginCapacity;
+        }
+
+        public int getLoginRefillPerMinute() {
+            return loginRefillPerMinute;
+        }
+
+        public void setLoginRefillPerMinute(int loginRefillPerMinute) {
+            this.loginRefillPerMinute = loginRefillPerMinute;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Sizing of the caches by name, the name of an entity or collection region being the name of its class or role.
+         * The caches not listed here, and the values not set, default to the {@code jhipster.cache.ehcache} properties.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            /**
+             * Number of entries kept on the heap.
+             */
+            private Long maxEntries;
+
+            /**
+             * Size of the off-heap tier in MB, 0 for none. The values of the cache must be serializable to be stored off-heap.
+             */
+            private long offHeapMb;
+
+            /**
+             * Time an entry stays in the cache.
+             */
+            private Long timeToLiveSeconds;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public long getOffHeapMb() {
+                return offHeapMb;
+            }
+
+            public void setOffHeapMb(long offHeapMb) {
+                this.offHeapMb = offHeapMb;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
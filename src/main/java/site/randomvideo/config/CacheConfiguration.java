@@ -1,9 +1,13 @@
 package site.randomvideo.config;
 
 import java.time.Duration;
+import java.util.Map;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -19,20 +23,16 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
-
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final Map<String, ApplicationProperties.Cache.Region> regions;
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.regions = applicationProperties.getCache().getRegions();
     }
 
     @Bean
@@ -45,6 +45,9 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, site.randomvideo.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, site.randomvideo.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, site.randomvideo.repository.VideoListRepository.VIDEOS_BY_SLUG_CACHE);
+            createCache(cm, site.randomvideo.repository.VideoListRepository.VIDEO_IDS_BY_VERSION_CACHE);
+            createCache(cm, site.randomvideo.repository.XUserRepository.XUSER_IDS_BY_LOGIN_CACHE);
             createCache(cm, site.randomvideo.domain.User.class.getName());
             createCache(cm, site.randomvideo.domain.Authority.class.getName());
             createCache(cm, site.randomvideo.domain.User.class.getName() + ".authorities");
@@ -56,6 +59,11 @@ public class CacheConfiguration {
             createCache(cm, site.randomvideo.domain.Video.class.getName() + ".videoLists");
             createCache(cm, site.randomvideo.domain.XUser.class.getName() + ".videos");
             // jhipster-needle-ehcache-add-entry
+            regions
+                .keySet()
+                .stream()
+                .filter(cacheName -> cm.getCache(cacheName) == null)
+                .forEach(cacheName -> log.warn("Sizing configured for the unknown cache {}", cacheName));
         };
     }
 
@@ -64,8 +72,38 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, jcacheConfiguration(cacheName));
+        }
+        // the hits, misses, puts, removals and evictions are exposed as cache.* meters by Spring Boot
+        cm.enableStatistics(cacheName, true);
+    }
+
+    /**
+     * Build the configuration of a cache from its sizing in the {@code application.cache.regions} properties,
+     * defaulting to the {@code jhipster.cache.ehcache} properties, and log the effective sizing.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = regions.getOrDefault(cacheName, new ApplicationProperties.Cache.Region());
+        long maxEntries = region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries();
+        long timeToLiveSeconds = region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds();
+
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(maxEntries);
+        if (region.getOffHeapMb() > 0) {
+            resourcePools = resourcePools.offheap(region.getOffHeapMb(), MemoryUnit.MB);
         }
+        log.info(
+            "Cache {}: {} entries on heap, {} MB off-heap, time to live {} s",
+            cacheName,
+            maxEntries,
+            region.getOffHeapMb(),
+            timeToLiveSeconds
+        );
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds)))
+                .build()
+        );
     }
 
     @Autowired(required = false)
@@ -11,5 +11,8 @@ public final class Constants {
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "en";
 
+    // Spring profile running the application on a seeded in-memory database, for the Gatling load tests
+    public static final String SPRING_PROFILE_LOAD_TEST = "loadtest";
+
     private Constants() {}
 }
@@ -0,0 +1,56 @@
+package site.randomvideo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import site.randomvideo.management.SqlStatementBudgetInterceptor;
+import site.randomvideo.management.StatementCountingDataSource;
+
+/**
+ * Configuration of the SQL statement meters, exposed with the others on {@code /management/prometheus}.
+ * <p>
+ * Only when {@code application.sql-budget.enabled} is set, as in dev and in the tests: the connections of the counted
+ * requests are proxies, see {@link StatementCountingDataSource}.
+ * The meters of the caches are bound by Spring Boot, from the statistics enabled in {@link CacheConfiguration}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.sql-budget", name = "enabled", havingValue = "true")
+public class MetricsConfiguration implements WebMvcConfigurer {
+
+    private final SqlStatementBudgetInterceptor sqlStatementBudgetInterceptor;
+
+    public MetricsConfiguration(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        this.sqlStatementBudgetInterceptor = new SqlStatementBudgetInterceptor(meterRegistry, applicationProperties);
+    }
+
+    /**
+     * Wrap the Hikari {@link DataSource}, so that the statements of the counted requests are counted.
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlStatementBudgetInterceptor sqlStatementBudgetInterceptor() {
+        return sqlStatementBudgetInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatementBudgetInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,58 @@
+package site.randomvideo.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import site.randomvideo.management.PasswordHashingMetersService;
+import site.randomvideo.security.BoundedPasswordEncoder;
+
+/**
+ * Hashes the passwords on a dedicated, bounded executor, see {@link BoundedPasswordEncoder}.
+ */
+@Configuration
+public class PasswordHashingConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(PasswordHashingConfiguration.class);
+
+    private final ApplicationProperties.PasswordHashing properties;
+
+    public PasswordHashingConfiguration(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getPasswordHashing();
+    }
+
+    @Bean(name = "passwordHashingExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(PasswordHashingMetersService metersService) {
+        log.debug("Creating password hashing executor with {} threads", properties.getThreads());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            properties.getThreads(),
+            properties.getThreads(),
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory("password-hashing-")
+        );
+        metersService.monitorQueue(executor.getQueue());
+        return executor;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+        @Qualifier("passwordHashingExecutor") ThreadPoolExecutor passwordHashingExecutor,
+        PasswordHashingMetersService metersService
+    ) {
+        return new BoundedPasswordEncoder(
+            new BCryptPasswordEncoder(properties.getBcryptStrength()),
+            passwordHashingExecutor,
+            properties.getTimeoutMillis(),
+            metersService
+        );
+    }
+}
@@ -12,11 +12,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import site.randomvideo.management.SecurityMetersService;
+import site.randomvideo.security.AuthoritySets;
+import site.randomvideo.security.CachingJwtDecoder;
+import site.randomvideo.security.JwtPreValidator;
 
 @Configuration
 public class SecurityJwtConfiguration {
@@ -24,27 +27,47 @@ public class SecurityJwtConfiguration {
     @Value("${jhipster.security.authentication.jwt.base64-secret}")
     private String jwtKey;
 
+    /**
+     * Maximum number of verified tokens kept by the {@link CachingJwtDecoder}, 0 to verify every token on every request.
+     */
+    @Value("${application.jwt-cache.max-entries:10000}")
+    private int jwtCacheMaxEntries;
+
     @Bean
     public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
+        // the cache only keeps the tokens which passed, the rejected ones are counted below on every request
+        return new CachingJwtDecoder(meteredJwtDecoder(jwtDecoder, metersService), jwtCacheMaxEntries);
+    }
+
+    private JwtDecoder meteredJwtDecoder(JwtDecoder jwtDecoder, SecurityMetersService metersService) {
+        JwtPreValidator preValidator = new JwtPreValidator(JWT_ALGORITHM.getName());
         return token -> {
+            // malformed and expired tokens are rejected without verifying their signature
+            JwtPreValidator.Outcome outcome = preValidator.check(token);
+            if (outcome != JwtPreValidator.Outcome.PASSED) {
+                trackRejectedToken(outcome, metersService);
+                throw new JwtPreValidator.RejectedJwtException(outcome);
+            }
             try {
                 return jwtDecoder.decode(token);
-            } catch (Exception e) {
-                if (e.getMessage().contains("Invalid signature")) {
-                    metersService.trackTokenInvalidSignature();
-                } else if (e.getMessage().contains("Jwt expired at")) {
-                    metersService.trackTokenExpired();
-                } else if (e.getMessage().contains("Invalid JWT serialization")) {
-                    metersService.trackTokenMalformed();
-                } else if (e.getMessage().contains("Invalid unsecured/JWS/JWE")) {
-                    metersService.trackTokenMalformed();
-                }
+            } catch (JwtException e) {
+                trackRejectedToken(JwtPreValidator.classify(e), metersService);
                 throw e;
             }
         };
     }
 
+    private static void trackRejectedToken(JwtPreValidator.Outcome outcome, SecurityMetersService metersService) {
+        switch (outcome) {
+            case INVALID_SIGNATURE -> metersService.trackTokenInvalidSignature();
+            case EXPIRED -> metersService.trackTokenExpired();
+            case MALFORMED -> metersService.trackTokenMalformed();
+            case UNSUPPORTED -> metersService.trackTokenUnsupported();
+            default -> {}
+        }
+    }
+
     @Bean
     public JwtEncoder jwtEncoder() {
         return new NimbusJwtEncoder(new ImmutableSecret<>(getSecretKey()));
@@ -52,12 +75,8 @@ public class SecurityJwtConfiguration {
 
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-        grantedAuthoritiesConverter.setAuthorityPrefix("");
-        grantedAuthoritiesConverter.setAuthoritiesClaimName(AUTHORITIES_KEY);
-
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwt -> AuthoritySets.fromClaim(jwt.getClaims().get(AUTHORITIES_KEY)));
         return jwtAuthenticationConverter;
     }
 
@@ -1,5 +1,6 @@
 package site.randomvideo.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -36,6 +37,14 @@ public class VideoList implements Serializable {
     @Column(name = "slug", length = 50, nullable = false, unique = true)
     private String slug;
 
+    /**
+     * Bumped whenever the videos of this list, or one of them, change. Only ever written by bulk
+     * updates in {@link site.randomvideo.repository.VideoListRepository}, never through the entity.
+     */
+    @JsonIgnore
+    @Column(name = "content_version", nullable = false, insertable = false, updatable = false)
+    private Long contentVersion = 0L;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "rel_video_list__video",
@@ -91,6 +100,10 @@ public class VideoList implements Serializable {
         this.slug = slug;
     }
 
+    public Long getContentVersion() {
+        return this.contentVersion;
+    }
+
     public Set<Video> getVideos() {
         return this.videos;
     }
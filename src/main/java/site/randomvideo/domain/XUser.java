@@ -1,5 +1,6 @@
 package site.randomvideo.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.io.Serializable;
@@ -38,6 +39,21 @@ public class XUser implements Serializable {
     @JsonIgnoreProperties(value = { "xUser", "videoLists" }, allowSetters = true)
     private Set<Video> videos = new HashSet<>();
 
+    /**
+     * The number of videos of this user. Only ever written by the conditional updates of
+     * {@link site.randomvideo.service.XUserService}, which enforce the per-user limit.
+     */
+    @JsonIgnore
+    @Column(name = "video_count", nullable = false, insertable = false, updatable = false)
+    private Integer videoCount = 0;
+
+    /**
+     * The number of video lists of this user, maintained like {@link #videoCount}.
+     */
+    @JsonIgnore
+    @Column(name = "video_list_count", nullable = false, insertable = false, updatable = false)
+    private Integer videoListCount = 0;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -53,6 +69,14 @@ public class XUser implements Serializable {
         this.id = id;
     }
 
+    public Integer getVideoCount() {
+        return this.videoCount;
+    }
+
+    public Integer getVideoListCount() {
+        return this.videoListCount;
+    }
+
     public User getInternalUser() {
         return this.internalUser;
     }
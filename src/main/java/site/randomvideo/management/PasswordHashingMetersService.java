@@ -0,0 +1,76 @@
+package site.randomvideo.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PasswordHashingMetersService {
+
+    public static final String HASH_METER_NAME = "security.password.hash";
+    public static final String HASH_METER_DESCRIPTION = "Time spent hashing passwords, or checking them against their hash.";
+    public static final String HASH_METER_OPERATION_DIMENSION = "operation";
+
+    public static final String WAIT_METER_NAME = "security.password.hash.wait";
+    public static final String WAIT_METER_DESCRIPTION = "Time spent by the password hashing requests waiting for a hashing thread.";
+
+    public static final String QUEUE_METER_NAME = "security.password.hash.queue";
+    public static final String QUEUE_METER_DESCRIPTION = "Number of password hashing requests waiting for a hashing thread.";
+
+    public static final String REJECTED_METER_NAME = "security.password.hash.rejected";
+    public static final String REJECTED_METER_DESCRIPTION =
+        "Number of password hashing requests rejected because the queue was full, or because they waited too long.";
+    public static final String REJECTED_METER_BASE_UNIT = "requests";
+
+    private final MeterRegistry registry;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        this.encodeTimer = hashTimerForOperationBuilder("encode").register(registry);
+        this.matchesTimer = hashTimerForOperationBuilder("matches").register(registry);
+        this.waitTimer = Timer.builder(WAIT_METER_NAME).description(WAIT_METER_DESCRIPTION).publishPercentileHistogram().register(registry);
+        this.rejectedCounter =
+            Counter.builder(REJECTED_METER_NAME).baseUnit(REJECTED_METER_BASE_UNIT).description(REJECTED_METER_DESCRIPTION).register(registry);
+    }
+
+    private Timer.Builder hashTimerForOperationBuilder(String operation) {
+        return Timer
+            .builder(HASH_METER_NAME)
+            .description(HASH_METER_DESCRIPTION)
+            .tag(HASH_METER_OPERATION_DIMENSION, operation)
+            .publishPercentileHistogram();
+    }
+
+    /**
+     * Publish the size of the queue of the password hashing executor.
+     *
+     * @param queue the queue.
+     */
+    public void monitorQueue(Collection<?> queue) {
+        Gauge.builder(QUEUE_METER_NAME, queue, Collection::size).description(QUEUE_METER_DESCRIPTION).strongReference(true).register(registry);
+    }
+
+    public Timer getEncodeTimer() {
+        return encodeTimer;
+    }
+
+    public Timer getMatchesTimer() {
+        return matchesTimer;
+    }
+
+    public void trackWait(long nanos) {
+        this.waitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackRejected() {
+        this.rejectedCounter.increment();
+    }
+}
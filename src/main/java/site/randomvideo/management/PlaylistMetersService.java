@@ -0,0 +1,90 @@
+package site.randomvideo.management;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PlaylistMetersService {
+
+    public static final String VIDEOS_SERVED_METER_NAME = "playlist.videos.served";
+    public static final String VIDEOS_SERVED_METER_DESCRIPTION = "Number of videos in each playlist response.";
+    public static final String VIDEOS_SERVED_METER_BASE_UNIT = "videos";
+    public static final String VIDEOS_SERVED_METER_ENDPOINT_DIMENSION = "endpoint";
+
+    public static final String BY_SLUG_METER_NAME = "playlist.by-slug.phase";
+    public static final String BY_SLUG_METER_DESCRIPTION =
+        "Time spent serving the videos of a video list by slug, split into loading them, serializing them, and writing the response.";
+    public static final String BY_SLUG_METER_PHASE_DIMENSION = "phase";
+
+    public static final String ENDPOINT_BY_SLUG = "by-slug";
+    public static final String ENDPOINT_RANDOM = "random";
+    public static final String ENDPOINT_PLAYBACK = "playback";
+
+    private final MeterRegistry registry;
+    private final DistributionSummary bySlugVideosSummary;
+    private final DistributionSummary randomVideosSummary;
+    private final DistributionSummary playbackVideosSummary;
+    private final Timer bySlugDbTimer;
+    private final Timer bySlugSerializeTimer;
+    private final Timer bySlugWriteTimer;
+
+    public PlaylistMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        this.bySlugVideosSummary = videosServedSummaryForEndpointBuilder(ENDPOINT_BY_SLUG).register(registry);
+        this.randomVideosSummary = videosServedSummaryForEndpointBuilder(ENDPOINT_RANDOM).register(registry);
+        this.playbackVideosSummary = videosServedSummaryForEndpointBuilder(ENDPOINT_PLAYBACK).register(registry);
+        this.bySlugDbTimer = bySlugTimerForPhaseBuilder("db").register(registry);
+        this.bySlugSerializeTimer = bySlugTimerForPhaseBuilder("serialize").register(registry);
+        this.bySlugWriteTimer = bySlugTimerForPhaseBuilder("write").register(registry);
+    }
+
+    private DistributionSummary.Builder videosServedSummaryForEndpointBuilder(String endpoint) {
+        return DistributionSummary
+            .builder(VIDEOS_SERVED_METER_NAME)
+            .baseUnit(VIDEOS_SERVED_METER_BASE_UNIT)
+            .description(VIDEOS_SERVED_METER_DESCRIPTION)
+            .tag(VIDEOS_SERVED_METER_ENDPOINT_DIMENSION, endpoint)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(1.0)
+            .maximumExpectedValue(10_000.0);
+    }
+
+    private Timer.Builder bySlugTimerForPhaseBuilder(String phase) {
+        return Timer
+            .builder(BY_SLUG_METER_NAME)
+            .description(BY_SLUG_METER_DESCRIPTION)
+            .tag(BY_SLUG_METER_PHASE_DIMENSION, phase)
+            .publishPercentileHistogram();
+    }
+
+    public void trackBySlugVideosServed(int count) {
+        this.bySlugVideosSummary.record(count);
+    }
+
+    public void trackRandomVideosServed(int count) {
+        this.randomVideosSummary.record(count);
+    }
+
+    public void trackPlaybackVideosServed(int count) {
+        this.playbackVideosSummary.record(count);
+    }
+
+    public <T> T timeBySlugDb(Supplier<T> load) {
+        return this.bySlugDbTimer.record(load);
+    }
+
+    public <T> T timeBySlugSerialize(Supplier<T> serialize) {
+        return this.bySlugSerializeTimer.record(serialize);
+    }
+
+    public Timer.Sample startBySlugWrite() {
+        return Timer.start(this.registry);
+    }
+
+    public void stopBySlugWrite(Timer.Sample sample) {
+        sample.stop(this.bySlugWriteTimer);
+    }
+}
@@ -0,0 +1,24 @@
+package site.randomvideo.management;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The maximum number of SQL statements a REST endpoint may run per request, checked by the
+ * {@link SqlStatementBudgetInterceptor}.
+ * <p>
+ * Budgets are meant to catch N+1 queries, so they must not depend on the amount of data: an
+ * endpoint going over its budget is failed in the integration tests, and logged in production.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlStatementBudget {
+    /**
+     * @return the maximum number of statements.
+     */
+    int value();
+}
@@ -0,0 +1,141 @@
+package site.randomvideo.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import site.randomvideo.config.ApplicationProperties;
+
+/**
+ * Attribute the SQL statements of every request to its handler, as counted by the {@link SqlStatementCounter}.
+ * Only a sample of the requests is counted, set by {@code application.sql-budget.sample-rate}.
+ * <p>
+ * The number of statements and the time spent running them are recorded per URI pattern. Requests
+ * running more statements than the {@link SqlStatementBudget} of their handler, or than the default
+ * budget, are counted and logged, for a sample of them only. When {@code application.sql-budget.fail-on-violation}
+ * is set, as in the tests, they are also kept until {@link #drainViolations()} is called.
+ */
+public class SqlStatementBudgetInterceptor implements HandlerInterceptor {
+
+    public static final String STATEMENTS_METER_NAME = "sql.statements.request";
+    public static final String STATEMENTS_METER_DESCRIPTION = "Number of SQL statements run per request.";
+    public static final String STATEMENTS_METER_BASE_UNIT = "statements";
+    public static final String TIME_METER_NAME = "sql.time.request";
+    public static final String TIME_METER_DESCRIPTION = "Time spent running SQL statements per request.";
+    public static final String BUDGET_EXCEEDED_METER_NAME = "sql.statements.budget.exceeded";
+    public static final String BUDGET_EXCEEDED_METER_DESCRIPTION = "Number of requests running more SQL statements than their budget.";
+    public static final String METHOD_DIMENSION = "method";
+    public static final String URI_DIMENSION = "uri";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final Logger log = LoggerFactory.getLogger(SqlStatementBudgetInterceptor.class);
+
+    private final MeterRegistry registry;
+
+    private final ApplicationProperties.SqlBudget sqlBudget;
+
+    private final ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+
+    public SqlStatementBudgetInterceptor(MeterRegistry registry, ApplicationProperties applicationProperties) {
+        this.registry = registry;
+        this.sqlBudget = applicationProperties.getSqlBudget();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (ThreadLocalRandom.current().nextDouble() < sqlBudget.getSampleRate()) {
+            SqlStatementCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementCounter.SqlStatementStats stats = SqlStatementCounter.stop();
+        if (stats == null) {
+            return;
+        }
+        // the URI pattern, and not the URI itself, keeps the number of time series bounded
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        DistributionSummary
+            .builder(STATEMENTS_METER_NAME)
+            .baseUnit(STATEMENTS_METER_BASE_UNIT)
+            .description(STATEMENTS_METER_DESCRIPTION)
+            .tags(METHOD_DIMENSION, request.getMethod(), URI_DIMENSION, uri)
+            .publishPercentileHistogram()
+            .maximumExpectedValue(1_000.0)
+            .register(registry)
+            .record(stats.statements());
+        Timer
+            .builder(TIME_METER_NAME)
+            .description(TIME_METER_DESCRIPTION)
+            .tags(METHOD_DIMENSION, request.getMethod(), URI_DIMENSION, uri)
+            .register(registry)
+            .record(stats.nanos(), TimeUnit.NANOSECONDS);
+
+        int budget = budget(handler);
+        if (budget <= 0 || stats.statements() <= budget) {
+            return;
+        }
+        Counter
+            .builder(BUDGET_EXCEEDED_METER_NAME)
+            .description(BUDGET_EXCEEDED_METER_DESCRIPTION)
+            .tags(METHOD_DIMENSION, request.getMethod(), URI_DIMENSION, uri)
+            .register(registry)
+            .increment();
+        boolean failOnViolation = sqlBudget.isFailOnViolation();
+        if (!failOnViolation && ThreadLocalRandom.current().nextDouble() >= sqlBudget.getLogSampleRate()) {
+            return;
+        }
+        String violation = String.format(
+            "%s %s ran %d SQL statements in %d ms, over its budget of %d, in %s",
+            request.getMethod(),
+            request.getRequestURI(),
+            stats.statements(),
+            TimeUnit.NANOSECONDS.toMillis(stats.nanos()),
+            budget,
+            handler instanceof HandlerMethod handlerMethod ? handlerMethod.getShortLogMessage() : handler
+        );
+        log.warn(violation);
+        if (failOnViolation) {
+            violations.add(violation);
+        }
+    }
+
+    /**
+     * Get and forget the requests which went over their budget, when {@code application.sql-budget.fail-on-violation} is set.
+     *
+     * @return the description of each request over its budget.
+     */
+    public List<String> drainViolations() {
+        List<String> drained = new ArrayList<>();
+        for (String violation = violations.poll(); violation != null; violation = violations.poll()) {
+            drained.add(violation);
+        }
+        return drained;
+    }
+
+    private int budget(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            SqlStatementBudget budget = handlerMethod.getMethodAnnotation(SqlStatementBudget.class);
+            if (budget != null) {
+                return budget.value();
+            }
+        }
+        return sqlBudget.getDefaultStatements();
+    }
+}
@@ -0,0 +1,58 @@
+package site.randomvideo.management;
+
+/**
+ * Count the SQL statements run on the current thread, and the time spent running them, between
+ * {@link #start()} and {@link #stop()}. The statements are reported by the {@link StatementCountingDataSource}.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<long[]> STATS = new ThreadLocal<>();
+
+    private SqlStatementCounter() {}
+
+    /**
+     * Start counting on the current thread, from zero.
+     */
+    public static void start() {
+        STATS.set(new long[2]);
+    }
+
+    /**
+     * @return whether counting was started on the current thread.
+     */
+    public static boolean isCounting() {
+        return STATS.get() != null;
+    }
+
+    /**
+     * Record a statement run on the current thread. Nothing is recorded if counting wasn't started.
+     *
+     * @param nanos the time spent running the statement.
+     */
+    public static void record(long nanos) {
+        long[] stats = STATS.get();
+        if (stats != null) {
+            stats[0]++;
+            stats[1] += nanos;
+        }
+    }
+
+    /**
+     * Stop counting on the current thread.
+     *
+     * @return the statements recorded since {@link #start()}, or null if counting wasn't started.
+     */
+    public static SqlStatementStats stop() {
+        long[] stats = STATS.get();
+        STATS.remove();
+        return stats == null ? null : new SqlStatementStats((int) stats[0], stats[1]);
+    }
+
+    /**
+     * The SQL statements run while handling a request.
+     *
+     * @param statements the number of statements.
+     * @param nanos the total time spent running them.
+     */
+    public record SqlStatementStats(int statements, long nanos) {}
+}
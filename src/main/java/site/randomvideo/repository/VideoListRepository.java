@@ -6,8 +6,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.repository.query.Param;
 import site.randomvideo.domain.VideoList;
-import site.randomvideo.domain.XUser;
+import site.randomvideo.repository.projection.PublicVideoDTO;
 
 /**
  * Spring Data JPA repository for the VideoList entity.
@@ -17,6 +18,10 @@ import site.randomvideo.domain.XUser;
  */
 @Repository
 public interface VideoListRepository extends VideoListRepositoryWithBagRelationships, JpaRepository<VideoList, Long> {
+    String VIDEOS_BY_SLUG_CACHE = "videosBySlug";
+
+    String VIDEO_IDS_BY_VERSION_CACHE = "videoIdsByVersion";
+
     default Optional<VideoList> findOneWithEagerRelationships(Long id) {
         return this.fetchBagRelationships(this.findById(id));
     }
@@ -32,7 +37,52 @@ public interface VideoListRepository extends VideoListRepositoryWithBagRelations
     List<VideoList> findAllWithEagerRelationshipsByxUserId(Long id);
     List<VideoList> findAllByxUserId(Long id);
 
+    List<VideoList> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    boolean existsBySlug(String slug);
+
+    @Query(
+        "select new site.randomvideo.repository.projection.PublicVideoDTO(video.id, video.name, video.url) " +
+        "from VideoList videoList join videoList.videos video where videoList.slug = :slug"
+    )
+    List<PublicVideoDTO> findPublicVideosBySlug(@Param("slug") String slug);
+
+    /**
+     * Reads the ids of the videos of a video list from the join table alone, ordered by video id.
+     */
+    @Query("select video.id from VideoList videoList join videoList.videos video where videoList.id = :id order by video.id")
+    List<Long> findVideoIdsByVideoListId(@Param("id") Long id);
+
+    @Query("select videoList.slug from VideoList videoList join videoList.videos video where video.id = :videoId")
+    List<String> findSlugsByVideoId(@Param("videoId") Long videoId);
+
+    @Query("select videoList.id from VideoList videoList join videoList.videos video where video.id = :videoId")
+    List<Long> findIdsByVideoId(@Param("videoId") Long videoId);
+
+    @Query("select videoList.id as id, videoList.contentVersion as contentVersion from VideoList videoList where videoList.slug = :slug")
+    Optional<ContentVersion> findContentVersionBySlug(@Param("slug") String slug);
 
-    Optional<VideoList> findOneWithEagerRelationshipsBySlug(String slug);
-    Long countByxUser(XUser xUser);
+    @Query("select videoList.slug from VideoList videoList where videoList.id = :id and videoList.xUser.id = :xUserId")
+    Optional<String> findSlugByIdAndXUserId(@Param("id") Long id, @Param("xUserId") Long xUserId);
+
+    @Query("select videoList.slug as slug, videoList.xUser.id as ownerId from VideoList videoList where videoList.id = :id")
+    Optional<SlugAndOwner> findSlugAndOwnerById(@Param("id") Long id);
+
+    /**
+     * The slug of a video list and the id of its owner.
+     */
+    interface SlugAndOwner {
+        String getSlug();
+
+        Long getOwnerId();
+    }
+
+    /**
+     * The version of the videos of a video list, see {@link VideoList#getContentVersion()}.
+     */
+    interface ContentVersion {
+        Long getId();
+
+        Long getContentVersion();
+    }
 }
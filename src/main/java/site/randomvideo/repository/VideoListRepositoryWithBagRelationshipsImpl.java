@@ -2,23 +2,35 @@ package site.randomvideo.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.IntStream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import site.randomvideo.config.ApplicationProperties;
 import site.randomvideo.domain.VideoList;
 
 /**
  * Utility repository to load bag relationships based on https://vladmihalcea.com/hibernate-multiplebagfetchexception/
+ * <p>
+ * Many video lists are loaded in chunks of {@code application.repository.bag-fetch-chunk-size} ids, so that
+ * the {@code in} clause doesn't grow with the number of video lists. Each chunk is a join fetch returning one
+ * row per video of its video lists, so a query reads at most the chunk size times
+ * {@link site.randomvideo.service.XUserService#MAX_VIDEOS_PER_USER} rows: keep the chunks small.
  */
 public class VideoListRepositoryWithBagRelationshipsImpl implements VideoListRepositoryWithBagRelationships {
 
     @PersistenceContext
     private EntityManager entityManager;
 
+    private final int chunkSize;
+
+    public VideoListRepositoryWithBagRelationshipsImpl(ApplicationProperties applicationProperties) {
+        this.chunkSize = Math.max(1, applicationProperties.getRepository().getBagFetchChunkSize());
+    }
+
     @Override
     public Optional<VideoList> fetchBagRelationships(Optional<VideoList> videoList) {
         return videoList.map(this::fetchVideos);
@@ -45,16 +57,61 @@ public class VideoListRepositoryWithBagRelationshipsImpl implements VideoListRep
     }
 
     List<VideoList> fetchVideos(List<VideoList> videoLists) {
-        HashMap<Object, Integer> order = new HashMap<>();
-        IntStream.range(0, videoLists.size()).forEach(index -> order.put(videoLists.get(index).getId(), index));
-        List<VideoList> result = entityManager
-            .createQuery(
-                "select videoList from VideoList videoList left join fetch videoList.videos where videoList in :videoLists",
-                VideoList.class
-            )
-            .setParameter("videoLists", videoLists)
-            .getResultList();
-        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
-        return result;
+        if (videoLists.isEmpty()) {
+            return videoLists;
+        }
+        // first phase: the ids, and where each of them goes in the result
+        IdIndex order = new IdIndex(videoLists);
+        VideoList[] result = new VideoList[videoLists.size()];
+
+        // second phase: the videos, one bounded join fetch per chunk of ids
+        for (int from = 0; from < videoLists.size(); from += chunkSize) {
+            List<Long> chunk = new ArrayList<>(Math.min(chunkSize, videoLists.size() - from));
+            for (int i = from; i < Math.min(from + chunkSize, videoLists.size()); i++) {
+                chunk.add(videoLists.get(i).getId());
+            }
+            entityManager
+                .createQuery(
+                    "select videoList from VideoList videoList left join fetch videoList.videos where videoList.id in :ids",
+                    VideoList.class
+                )
+                .setParameter("ids", chunk)
+                .getResultList()
+                .forEach(videoList -> result[order.indexOf(videoList.getId())] = videoList);
+        }
+        List<VideoList> fetched = new ArrayList<>(result.length);
+        for (VideoList videoList : result) {
+            if (videoList != null) {
+                fetched.add(videoList);
+            }
+        }
+        return fetched;
+    }
+
+    /**
+     * Maps ids to their position in a list, backed by sorted primitive arrays instead of a boxed map.
+     */
+    static final class IdIndex {
+
+        private final long[] ids;
+
+        private final int[] positions;
+
+        IdIndex(List<VideoList> videoLists) {
+            long[] unsorted = new long[videoLists.size()];
+            for (int i = 0; i < unsorted.length; i++) {
+                unsorted[i] = videoLists.get(i).getId();
+            }
+            ids = unsorted.clone();
+            Arrays.sort(ids);
+            positions = new int[ids.length];
+            for (int i = 0; i < unsorted.length; i++) {
+                positions[Arrays.binarySearch(ids, unsorted[i])] = i;
+            }
+        }
+
+        int indexOf(long id) {
+            return positions[Arrays.binarySearch(ids, id)];
+        }
     }
 }
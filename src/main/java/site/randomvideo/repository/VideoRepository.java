@@ -1,10 +1,13 @@
 package site.randomvideo.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import site.randomvideo.domain.Video;
-import site.randomvideo.domain.XUser;
+import site.randomvideo.repository.projection.PublicVideoDTO;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,5 +18,8 @@ import java.util.List;
 public interface VideoRepository extends JpaRepository<Video, Long> {
     List<Video> findByxUserId(Long userId);
 
-    long countByxUser(XUser currentXUser);
+    List<Video> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select new site.randomvideo.repository.projection.PublicVideoDTO(video.id, video.name, video.url) from Video video where video.id in :ids")
+    List<PublicVideoDTO> findPublicVideosByIdIn(@Param("ids") Collection<Long> ids);
 }
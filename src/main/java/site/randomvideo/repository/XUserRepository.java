@@ -1,6 +1,8 @@
 package site.randomvideo.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import site.randomvideo.domain.XUser;
 
@@ -12,5 +14,11 @@ import java.util.Optional;
 @SuppressWarnings("unused")
 @Repository
 public interface XUserRepository extends JpaRepository<XUser, Long> {
+    String XUSER_IDS_BY_LOGIN_CACHE = "xUserIdsByLogin";
+
     Optional<XUser> findOneByInternalUserId(Long id);
+
+    @Cacheable(cacheNames = XUSER_IDS_BY_LOGIN_CACHE, unless = "#result == null")
+    @Query("select xUser.id from XUser xUser where xUser.internalUser.login = :login")
+    Optional<Long> findIdByInternalUserLogin(@Param("login") String login);
 }
@@ -0,0 +1,10 @@
+package site.randomvideo.repository.projection;
+
+import java.io.Serializable;
+
+/**
+ * A read-only projection of a video of a public video list, with only the fields the player needs.
+ * <p>
+ * It is built directly by JPQL constructor expressions, so reading it never touches the persistence context.
+ */
+public record PublicVideoDTO(Long id, String name, String url) implements Serializable {}
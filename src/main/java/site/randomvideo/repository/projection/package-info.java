@@ -0,0 +1,4 @@
+/**
+ * Read-only projections returned by repository queries.
+ */
+package site.randomvideo.repository.projection;
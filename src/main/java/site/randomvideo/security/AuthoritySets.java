@@ -0,0 +1,89 @@
+package site.randomvideo.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Registry of the immutable sets of authorities granted to the users.
+ * <p>
+ * The users share a handful of combinations of authorities, like {@code ROLE_USER} or
+ * {@code ROLE_ADMIN ROLE_USER}. Each combination is built once, whatever the order of its names,
+ * and then shared by all the authentications granting it.
+ */
+public final class AuthoritySets {
+
+    /**
+     * Bound of the registry, in case the claims hold unexpected combinations: past it, the sets are
+     * built on every call.
+     */
+    private static final int MAX_SETS = 256;
+
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    /**
+     * The sets by the space-separated names of their authorities, both as written in the tokens and
+     * sorted.
+     */
+    private static final Map<String, List<GrantedAuthority>> SETS = new ConcurrentHashMap<>();
+
+    private AuthoritySets() {}
+
+    /**
+     * Get the authorities of a JWT authorities claim.
+     *
+     * @param claim the claim, either space-separated names or a collection of names.
+     * @return the immutable set of the authorities.
+     */
+    public static List<GrantedAuthority> fromClaim(Object claim) {
+        if (claim instanceof String names) {
+            List<GrantedAuthority> set = SETS.get(names);
+            return set != null ? set : intern(names, List.of(names.split(" ")));
+        }
+        if (claim instanceof Collection<?> names) {
+            return of(names.stream().map(String::valueOf).toList());
+        }
+        return List.of();
+    }
+
+    /**
+     * Get the set of authorities of some names.
+     *
+     * @param names the names of the authorities.
+     * @return the immutable set of the authorities.
+     */
+    public static List<GrantedAuthority> of(Collection<String> names) {
+        return intern(null, names);
+    }
+
+    private static List<GrantedAuthority> intern(String key, Collection<String> names) {
+        TreeSet<String> sortedNames = new TreeSet<>();
+        for (String name : names) {
+            if (!name.isBlank()) {
+                sortedNames.add(name);
+            }
+        }
+        String sortedKey = String.join(" ", sortedNames);
+        List<GrantedAuthority> set = SETS.get(sortedKey);
+        if (set == null) {
+            List<GrantedAuthority> authorities = new ArrayList<>(sortedNames.size());
+            for (String name : sortedNames) {
+                authorities.add(AUTHORITIES.computeIfAbsent(name, SimpleGrantedAuthority::new));
+            }
+            List<GrantedAuthority> built = List.copyOf(authorities);
+            if (SETS.size() >= MAX_SETS) {
+                return built;
+            }
+            set = SETS.computeIfAbsent(sortedKey, k -> built);
+        }
+        if (key != null && !key.equals(sortedKey) && SETS.size() < MAX_SETS) {
+            SETS.putIfAbsent(key, set);
+        }
+        return set;
+    }
+}
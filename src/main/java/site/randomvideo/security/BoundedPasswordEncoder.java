@@ -0,0 +1,96 @@
+package site.randomvideo.security;
+
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import site.randomvideo.management.PasswordHashingMetersService;
+
+/**
+ * {@link PasswordEncoder} running the hashing of its delegate on a dedicated, bounded executor.
+ * <p>
+ * Hashing a password is deliberately slow, so a burst of logins run directly on the request threads
+ * would take all the CPU from the other requests. Here at most as many passwords as the executor
+ * has threads are hashed at once; the other requests wait in its bounded queue, and are rejected
+ * with a {@link PasswordHashingUnavailableException} when the queue is full or when they waited
+ * longer than the timeout.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final ExecutorService executor;
+
+    private final long timeoutMillis;
+
+    private final PasswordHashingMetersService metersService;
+
+    public BoundedPasswordEncoder(
+        PasswordEncoder delegate,
+        ExecutorService executor,
+        long timeoutMillis,
+        PasswordHashingMetersService metersService
+    ) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        this.metersService = metersService;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(() -> delegate.encode(rawPassword), metersService.getEncodeTimer());
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(() -> delegate.matches(rawPassword, encodedPassword), metersService.getMatchesTimer());
+    }
+
+    /**
+     * Reading the cost of a hash is cheap, so it stays on the calling thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T hash(Callable<T> hashing, Timer timer) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future =
+                executor.submit(() -> {
+                    metersService.trackWait(System.nanoTime() - submitted);
+                    return timer.recordCallable(hashing);
+                });
+        } catch (RejectedExecutionException e) {
+            metersService.trackRejected();
+            throw new PasswordHashingUnavailableException("Too many passwords waiting to be hashed", e);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            metersService.trackRejected();
+            throw new PasswordHashingUnavailableException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package site.randomvideo.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+
+/**
+ * {@link JwtDecoder} keeping the tokens it already verified, so that the signature of a token
+ * sent with many requests is only checked once.
+ * <p>
+ * Tokens are cached by their SHA-256 digest. A cached token is validated again on every use, with
+ * the default validators of {@link org.springframework.security.oauth2.jwt.NimbusJwtDecoder}, so
+ * it expires exactly as it would without the cache: once it is no longer valid, it is evicted and
+ * decoded again by the delegate, which rejects it. Rejected tokens are never cached.
+ * <p>
+ * The cache is bounded: when it is full, the expired tokens are evicted, and if it is still full
+ * all the tokens are, to be verified again on their next use.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    private final int maxEntries;
+
+    private final OAuth2TokenValidator<Jwt> validator = JwtValidators.createDefault();
+
+    private final Map<ByteBuffer, Jwt> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate the decoder verifying the tokens.
+     * @param maxEntries the maximum number of cached tokens, 0 to disable the cache.
+     */
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (maxEntries <= 0 || token == null) {
+            return delegate.decode(token);
+        }
+        ByteBuffer key = digest(token);
+        Jwt jwt = cache.get(key);
+        if (jwt != null) {
+            if (!validator.validate(jwt).hasErrors()) {
+                return jwt;
+            }
+            cache.remove(key);
+        }
+        jwt = delegate.decode(token);
+        if (cache.size() >= maxEntries) {
+            evict();
+        }
+        cache.put(key, jwt);
+        return jwt;
+    }
+
+    private void evict() {
+        Instant now = Instant.now();
+        cache.values().removeIf(jwt -> jwt.getExpiresAt() == null || jwt.getExpiresAt().isBefore(now));
+        if (cache.size() >= maxEntries) {
+            cache.clear();
+        }
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package site.randomvideo.security;
+
+import com.nimbusds.jose.proc.BadJWSException;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+/**
+ * Cheap checks of a JWT before its signature is verified: the token must be a compact JWS, signed
+ * with the expected algorithm, and not expired.
+ * <p>
+ * The checks read the header and the claims without verifying them, so they can only reject
+ * tokens: a token which passes them must still be decoded, and its signature verified.
+ */
+public class JwtPreValidator {
+
+    /**
+     * Same clock skew as the default validators of {@link org.springframework.security.oauth2.jwt.NimbusJwtDecoder}.
+     */
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    public enum Outcome {
+        PASSED,
+        MALFORMED,
+        UNSUPPORTED,
+        EXPIRED,
+        INVALID_SIGNATURE,
+        OTHER,
+    }
+
+    private final String algorithm;
+
+    private final Clock clock;
+
+    public JwtPreValidator(String algorithm) {
+        this(algorithm, Clock.systemUTC());
+    }
+
+    JwtPreValidator(String algorithm, Clock clock) {
+        this.algorithm = algorithm;
+        this.clock = clock;
+    }
+
+    /**
+     * Check a token.
+     *
+     * @param token the token.
+     * @return {@link Outcome#PASSED} if the token may be valid, the cause of its rejection otherwise.
+     */
+    public Outcome check(String token) {
+        if (token == null) {
+            return Outcome.MALFORMED;
+        }
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    // JWE tokens have 5 parts
+                    return Outcome.UNSUPPORTED;
+                }
+            } else if (!isBase64Url(c)) {
+                return Outcome.MALFORMED;
+            }
+        }
+        if (firstDot <= 0 || secondDot < 0 || secondDot == firstDot + 1 || secondDot == token.length() - 1) {
+            return Outcome.MALFORMED;
+        }
+
+        Map<String, Object> header = parseJson(token, 0, firstDot);
+        if (header == null) {
+            return Outcome.MALFORMED;
+        }
+        if (!algorithm.equals(header.get("alg"))) {
+            return Outcome.UNSUPPORTED;
+        }
+        Map<String, Object> claims = parseJson(token, firstDot + 1, secondDot);
+        if (claims == null) {
+            return Outcome.MALFORMED;
+        }
+        if (claims.get("exp") instanceof Number exp && Instant.ofEpochSecond(exp.longValue()).plus(CLOCK_SKEW).isBefore(clock.instant())) {
+            return Outcome.EXPIRED;
+        }
+        return Outcome.PASSED;
+    }
+
+    /**
+     * Classify the exception thrown by a {@link org.springframework.security.oauth2.jwt.NimbusJwtDecoder}
+     * from its type and cause.
+     *
+     * @param e the exception.
+     * @return the cause of the rejection of the token.
+     */
+    public static Outcome classify(JwtException e) {
+        if (e instanceof RejectedJwtException rejected) {
+            return rejected.getOutcome();
+        }
+        if (e instanceof JwtValidationException) {
+            // the timestamps are the only claims validated
+            return Outcome.EXPIRED;
+        }
+        if (e instanceof BadJwtException) {
+            if (e.getCause() instanceof BadJWSException) {
+                return Outcome.INVALID_SIGNATURE;
+            }
+            if (e.getCause() instanceof ParseException) {
+                return Outcome.MALFORMED;
+            }
+        }
+        return Outcome.OTHER;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
+    private static Map<String, Object> parseJson(String token, int start, int end) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token.substring(start, end));
+            return JSONObjectUtils.parse(new String(json, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | ParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Rejection of a token by the {@link JwtPreValidator}. It is thrown for every rejected token, so it
+     * doesn't capture a stack trace.
+     */
+    public static class RejectedJwtException extends BadJwtException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Outcome outcome;
+
+        public RejectedJwtException(Outcome outcome) {
+            super("Jwt rejected: " + outcome.name().toLowerCase());
+            this.outcome = outcome;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package site.randomvideo.security;
+
+import java.time.Clock;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import site.randomvideo.config.ApplicationProperties;
+import site.randomvideo.management.SecurityMetersService;
+
+/**
+ * Rate limiter of the requests hashing a password, with a token bucket per client IP address and
+ * one per login.
+ * <p>
+ * The bucket of the IP address limits a single client hashing passwords for many accounts, the
+ * bucket of the login limits guessing the password of a single account from many addresses.
+ * The address is the {@code request.getRemoteAddr()} of the callers: behind a reverse proxy, it is
+ * only the client's when {@code server.forward-headers-strategy} is set, as in prod, otherwise all
+ * the clients share the bucket of the proxy.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
+    private final ApplicationProperties.LoginRateLimit properties;
+
+    private final SecurityMetersService metersService;
+
+    private final Clock clock;
+
+    private final Map<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+
+    private final Map<String, Bucket> loginBuckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoginRateLimiter(ApplicationProperties applicationProperties, SecurityMetersService metersService) {
+        this(applicationProperties, metersService, Clock.systemUTC());
+    }
+
+    LoginRateLimiter(ApplicationProperties applicationProperties, SecurityMetersService metersService, Clock clock) {
+        this.properties = applicationProperties.getLoginRateLimit();
+        this.metersService = metersService;
+        this.clock = clock;
+    }
+
+    /**
+     * Take a token from the buckets of a request.
+     *
+     * @param ip the IP address of the client.
+     * @param login the login the request hashes the password of, {@code null} if unknown.
+     * @return {@code false} if one of the buckets is empty, and the request must be rejected.
+     */
+    public boolean tryAcquire(String ip, String login) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        long now = clock.millis();
+        if (
+            ip != null &&
+            !ipBuckets.computeIfAbsent(ip, key -> new Bucket(now)).tryAcquire(now, properties.getIpCapacity(), properties.getIpRefillPerMinute())
+        ) {
+            metersService.trackRateLimitedByIp();
+            return false;
+        }
+        if (
+            login != null &&
+            !loginBuckets
+                .computeIfAbsent(login.toLowerCase(Locale.ENGLISH), key -> new Bucket(now))
+                .tryAcquire(now, properties.getLoginCapacity(), properties.getLoginRefillPerMinute())
+        ) {
+            metersService.trackRateLimitedByLogin();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remove the buckets refilled since their last use, which behave like new ones.
+     * <p>
+     * This is scheduled to get fired every minute.
+     */
+    @Scheduled(fixedDelay = MILLIS_PER_MINUTE)
+    public void removeFullBuckets() {
+        long now = clock.millis();
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now, properties.getIpRefillPerMinute()));
+        loginBuckets.values().removeIf(bucket -> bucket.isFull(now, properties.getLoginRefillPerMinute()));
+    }
+
+    int size() {
+        return ipBuckets.size() + loginBuckets.size();
+    }
+
+    private static final class Bucket {
+
+        private double used;
+
+        private long updatedAt;
+
+        Bucket(long now) {
+            this.updatedAt = now;
+        }
+
+        synchronized boolean tryAcquire(long now, int capacity, int refillPerMinute) {
+            refill(now, refillPerMinute);
+            if (used + 1 > capacity) {
+                return false;
+            }
+            used++;
+            return true;
+        }
+
+        synchronized boolean isFull(long now, int refillPerMinute) {
+            refill(now, refillPerMinute);
+            return used == 0;
+        }
+
+        private void refill(long now, int refillPerMinute) {
+            used = Math.max(0, used - (double) (now - updatedAt) * refillPerMinute / MILLIS_PER_MINUTE);
+            updatedAt = now;
+        }
+    }
+}
@@ -20,6 +20,8 @@ public final class SecurityUtils {
 
     public static final String AUTHORITIES_KEY = "auth";
 
+    public static final String XUSER_ID_KEY = "xuid";
+
     private SecurityUtils() {}
 
     /**
@@ -45,6 +47,19 @@ public final class SecurityUtils {
         return null;
     }
 
+    /**
+     * Get the id of the current user's XUser, as minted in their JWT.
+     *
+     * @return the id of the current user's XUser, or empty if the current user isn't authenticated with a JWT holding it.
+     */
+    public static Optional<Long> getCurrentXUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt && jwt.getClaim(XUSER_ID_KEY) instanceof Number id) {
+            return Optional.of(id.longValue());
+        }
+        return Optional.empty();
+    }
+
     /**
      * Get the JWT of the current user.
      *
@@ -0,0 +1,368 @@
+package site.randomvideo.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.randomvideo.config.ApplicationProperties;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service sending the emails through the {@code mail_outbox} table.
+ * <p>
+ * An email is first written to the outbox, in the transaction of the caller, so it is only sent
+ * if that transaction commits. Once committed, it is put on a bounded in-memory queue drained by
+ * the {@code mailExecutor}, which sends the queued emails in batches over a single connection to
+ * the mail server, and deletes them from the outbox.
+ * <p>
+ * The emails which could not be sent are retried with an exponential backoff by
+ * {@link #pollOutbox()}, which also picks up the emails which never left the in-memory queue,
+ * for instance because it was full or because the application stopped.
+ */
+@Service
+public class MailOutboxService {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO mail_outbox (recipient, subject, content, is_multipart, is_html, attempts, next_attempt_at, created_date) " +
+        "VALUES (?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private static final String FIND_DUE_SQL =
+        "SELECT id, recipient, subject, content, is_multipart, is_html, attempts FROM mail_outbox " +
+        "WHERE attempts < ? AND next_attempt_at <= ? ORDER BY next_attempt_at LIMIT ?";
+
+    private static final String CLAIM_SQL = "UPDATE mail_outbox SET next_attempt_at = ? WHERE id = ? AND next_attempt_at <= ?";
+
+    private static final String DELETE_SQL = "DELETE FROM mail_outbox WHERE id = ?";
+
+    private static final String RETRY_SQL = "UPDATE mail_outbox SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final RowMapper<OutboxMail> OUTBOX_MAIL_ROW_MAPPER = (rs, rowNum) ->
+        new OutboxMail(
+            rs.getLong("id"),
+            rs.getString("recipient"),
+            rs.getString("subject"),
+            rs.getString("content"),
+            rs.getBoolean("is_multipart"),
+            rs.getBoolean("is_html"),
+            rs.getInt("attempts")
+        );
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxService.class);
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.MailOutbox mailOutbox;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor mailExecutor;
+
+    private final BlockingQueue<OutboxMail> queue;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public MailOutboxService(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        JavaMailSender javaMailSender,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("mailExecutor") Executor mailExecutor
+    ) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.mailOutbox = applicationProperties.getMailOutbox();
+        this.javaMailSender = javaMailSender;
+        this.jdbcTemplate = jdbcTemplate;
+        // the outbox is updated after the emails are sent, which may happen right after the commit of the caller
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mailExecutor = mailExecutor;
+        this.queue = new ArrayBlockingQueue<>(mailOutbox.getQueueCapacity());
+    }
+
+    /**
+     * Write an email to the outbox. It is sent in the background once the current transaction commits.
+     *
+     * @param to the recipient.
+     * @param subject the subject.
+     * @param content the content.
+     * @param isMultipart whether the message is multipart.
+     * @param isHtml whether the content is HTML.
+     */
+    @Transactional
+    public void enqueue(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+        Instant now = Instant.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(
+            connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, to);
+                ps.setString(2, subject);
+                ps.setString(3, content);
+                ps.setBoolean(4, isMultipart);
+                ps.setBoolean(5, isHtml);
+                // leased to the in-memory queue: the poller only picks the email up if it is still there by then
+                ps.setTimestamp(6, Timestamp.from(now.plusSeconds(mailOutbox.getLeaseSeconds())));
+                ps.setTimestamp(7, Timestamp.from(now));
+                return ps;
+            },
+            keyHolder
+        );
+        OutboxMail mail = new OutboxMail(keyHolder.getKey().longValue(), to, subject, content, isMultipart, isHtml, 0);
+        afterCommit(() -> offer(List.of(mail)));
+    }
+
+    /**
+     * Write many emails to the outbox in a single batch. Once the current transaction commits, they are
+     * picked up from the outbox by the {@code mailExecutor}, as many at a time as the in-memory queue can take.
+     *
+     * @param emails the emails to send.
+     */
+    @Transactional
+    public void enqueueAll(List<Email> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(
+            INSERT_SQL,
+            emails,
+            BATCH_SIZE,
+            (ps, email) -> {
+                ps.setString(1, email.to());
+                ps.setString(2, email.subject());
+                ps.setString(3, email.content());
+                ps.setBoolean(4, email.isMultipart());
+                ps.setBoolean(5, email.isHtml());
+                // due right away: the poll below queues them
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            }
+        );
+        afterCommit(() -> {
+            try {
+                mailExecutor.execute(this::pollOutbox);
+            } catch (TaskRejectedException e) {
+                log.warn("Mail executor rejected the polling of the outbox, the emails will be sent on the next poll", e);
+            }
+        });
+    }
+
+    /**
+     * Queue the emails of the outbox which are due, either for a retry or because their lease expired.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.mail-outbox.poll-interval-seconds:30}",
+        initialDelayString = "${application.mail-outbox.poll-interval-seconds:30}",
+        timeUnit = TimeUnit.SECONDS
+    )
+    public void pollOutbox() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<OutboxMail> claimed = transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.from(Instant.now());
+            Timestamp leaseEnd = Timestamp.from(now.toInstant().plusSeconds(mailOutbox.getLeaseSeconds()));
+            List<OutboxMail> due = jdbcTemplate.query(FIND_DUE_SQL, OUTBOX_MAIL_ROW_MAPPER, mailOutbox.getMaxAttempts(), now, capacity);
+            List<OutboxMail> mails = new ArrayList<>(due.size());
+            for (OutboxMail mail : due) {
+                // another instance of the application may have claimed the email since it was read
+                if (jdbcTemplate.update(CLAIM_SQL, leaseEnd, mail.id(), now) == 1) {
+                    mails.add(mail);
+                }
+            }
+            return mails;
+        });
+        if (claimed != null && !claimed.isEmpty()) {
+            log.debug("Queueing {} emails from the outbox", claimed.size());
+            offer(claimed);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
+    }
+
+    private void offer(List<OutboxMail> mails) {
+        for (OutboxMail mail : mails) {
+            if (!queue.offer(mail)) {
+                log.warn("Mail queue is full, email to '{}' will be sent from the outbox", mail.to());
+            }
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            mailExecutor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            draining.set(false);
+            log.warn("Mail executor rejected the sending of the queued emails, they will be sent from the outbox", e);
+        }
+    }
+
+    private void drain() {
+        try {
+            List<OutboxMail> batch = new ArrayList<>(mailOutbox.getBatchSize());
+            while (queue.drainTo(batch, mailOutbox.getBatchSize()) > 0) {
+                send(batch);
+                batch.clear();
+            }
+        } finally {
+            draining.set(false);
+        }
+        // an email queued between the last drainTo and the reset of the flag did not schedule a drain
+        scheduleDrain();
+    }
+
+    /**
+     * Send a batch of emails over a single connection, then delete the sent ones from the outbox
+     * and schedule the retry of the failed ones.
+     *
+     * @param batch the emails to send.
+     */
+    void send(List<OutboxMail> batch) {
+        Map<MimeMessage, OutboxMail> mailsByMessage = new IdentityHashMap<>();
+        Map<OutboxMail, Exception> failures = new IdentityHashMap<>();
+        for (OutboxMail mail : batch) {
+            try {
+                mailsByMessage.put(createMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                failures.put(mail, e);
+            }
+        }
+        MimeMessage[] messages = mailsByMessage.keySet().toArray(new MimeMessage[0]);
+        try {
+            if (messages.length == 1) {
+                javaMailSender.send(messages[0]);
+            } else if (messages.length > 1) {
+                javaMailSender.send(messages);
+            }
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages == null || failedMessages.isEmpty()) {
+                mailsByMessage.values().forEach(mail -> failures.put(mail, e));
+            } else {
+                failedMessages.forEach((message, exception) -> {
+                    OutboxMail mail = mailsByMessage.get(message);
+                    if (mail != null) {
+                        failures.put(mail, exception);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            mailsByMessage.values().forEach(mail -> failures.put(mail, e));
+        }
+
+        List<OutboxMail> sent = batch.stream().filter(mail -> !failures.containsKey(mail)).toList();
+        Instant now = Instant.now();
+        List<Object[]> retries = new ArrayList<>(failures.size());
+        failures.forEach((mail, e) -> {
+            int attempts = mail.attempts() + 1;
+            if (attempts >= mailOutbox.getMaxAttempts()) {
+                log.error("Email could not be sent to '{}', giving up after {} attempts", mail.to(), attempts, e);
+            } else {
+                log.warn("Email could not be sent to '{}', attempt {} of {}", mail.to(), attempts, mailOutbox.getMaxAttempts(), e);
+            }
+            retries.add(new Object[] { attempts, Timestamp.from(now.plus(retryBackoff(attempts))), errorMessage(e), mail.id() });
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, sent.stream().map(mail -> new Object[] { mail.id() }).toList());
+            }
+            if (!retries.isEmpty()) {
+                jdbcTemplate.batchUpdate(RETRY_SQL, retries);
+            }
+        });
+        log.debug("Sent {} emails, {} failed", sent.size(), failures.size());
+    }
+
+    /**
+     * Delay before the next attempt to send an email.
+     *
+     * @param attempts the number of attempts made so far.
+     * @return the retry backoff, doubled after every attempt and capped by the maximum backoff.
+     */
+    Duration retryBackoff(int attempts) {
+        long backoff = mailOutbox.getRetryBackoffSeconds() << Math.min(attempts - 1, 30);
+        return Duration.ofSeconds(Math.min(backoff, mailOutbox.getMaxRetryBackoffSeconds()));
+    }
+
+    private MimeMessage createMimeMessage(OutboxMail mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.isMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.to());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.subject());
+        message.setText(mail.content(), mail.isHtml());
+        return mimeMessage;
+    }
+
+    private static String errorMessage(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    /**
+     * An email to write to the outbox.
+     */
+    public record Email(String to, String subject, String content, boolean isMultipart, boolean isHtml) {}
+
+    record OutboxMail(long id, String to, String subject, String content, boolean isMultipart, boolean isHtml, int attempts) {}
+}
@@ -1,26 +1,31 @@
 package site.randomvideo.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateEngineException;
 import org.thymeleaf.spring6.SpringTemplateEngine;
+import site.randomvideo.config.Constants;
 import site.randomvideo.domain.User;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * The emails are rendered in the calling thread, then sent in the background by the {@link MailOutboxService},
+ * so that the requests sending them don't wait for the mail server.
  */
 @Service
 public class MailService {
@@ -31,83 +36,160 @@ public class MailService {
 
     private static final String BASE_URL = "baseUrl";
 
+    private static final String ACTIVATION_TEMPLATE = "mail/activationEmail";
+
+    private static final String CREATION_TEMPLATE = "mail/creationEmail";
+
+    private static final String PASSWORD_RESET_TEMPLATE = "mail/passwordResetEmail";
+
+    private static final List<String> TEMPLATES = List.of(ACTIVATION_TEMPLATE, CREATION_TEMPLATE, PASSWORD_RESET_TEMPLATE);
+
     private final JHipsterProperties jHipsterProperties;
 
-    private final JavaMailSender javaMailSender;
+    private final MailOutboxService mailOutboxService;
 
     private final MessageSource messageSource;
 
     private final SpringTemplateEngine templateEngine;
 
+    private final ThymeleafProperties thymeleafProperties;
+
+    private final Map<String, String> subjects = new ConcurrentHashMap<>();
+
     public MailService(
         JHipsterProperties jHipsterProperties,
-        JavaMailSender javaMailSender,
+        MailOutboxService mailOutboxService,
         MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        SpringTemplateEngine templateEngine,
+        ThymeleafProperties thymeleafProperties
     ) {
         this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
+        this.mailOutboxService = mailOutboxService;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
+        this.thymeleafProperties = thymeleafProperties;
     }
 
-//    @Async
-    public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) throws MessagingException, MailException {
+    /**
+     * Send an email in the background, through the outbox. When called in a transaction, the email
+     * is only sent if the transaction commits.
+     */
+    public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         log.debug(
-            "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+            "Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart,
             isHtml,
             to,
             subject,
             content
         );
-
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
-            throw e;
-        }
+        mailOutboxService.enqueue(to, subject, content, isMultipart, isHtml);
     }
 
-//    @Async
-    public void sendEmailFromTemplate(User user, String templateName, String titleKey) throws MessagingException, MailException {
+    public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
         Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        String content = templateEngine.process(templateName, createContext(locale, user));
+        sendEmail(user.getEmail(), getSubject(titleKey, locale), content, false, true);
     }
 
-//    @Async
-    public void sendActivationEmail(User user) throws MessagingException, MailException {
+    /**
+     * Render an email template for many users in one pass: the template is parsed once, and the
+     * subject and the context are shared by all the users with the same language.
+     *
+     * @param users the recipients. The users without an email are skipped.
+     * @param templateName the template of the emails.
+     * @param titleKey the message key of the subject of the emails.
+     * @return the rendered emails, in the order of the users.
+     */
+    public List<MailOutboxService.Email> renderEmailsFromTemplate(Collection<User> users, String templateName, String titleKey) {
+        Map<String, Context> contextsByLangKey = new HashMap<>();
+        List<MailOutboxService.Email> emails = new ArrayList<>(users.size());
+        for (User user : users) {
+            if (user.getEmail() == null) {
+                log.debug("Email doesn't exist for user '{}'", user.getLogin());
+                continue;
+            }
+            Context context = contextsByLangKey.computeIfAbsent(user.getLangKey(), langKey ->
+                createContext(Locale.forLanguageTag(langKey), null)
+            );
+            context.setVariable(USER, user);
+            String content = templateEngine.process(templateName, context);
+            emails.add(new MailOutboxService.Email(user.getEmail(), getSubject(titleKey, context.getLocale()), content, false, true));
+        }
+        return emails;
+    }
+
+    /**
+     * Send an email template to many users, see {@link #renderEmailsFromTemplate(Collection, String, String)}.
+     * The emails are written to the outbox in a single batch.
+     *
+     * @param users the recipients. The users without an email are skipped.
+     * @param templateName the template of the emails.
+     * @param titleKey the message key of the subject of the emails.
+     * @return the number of emails queued.
+     */
+    public int sendEmailsFromTemplate(Collection<User> users, String templateName, String titleKey) {
+        List<MailOutboxService.Email> emails = renderEmailsFromTemplate(users, templateName, titleKey);
+        log.debug("Queue {} emails from template '{}'", emails.size(), templateName);
+        mailOutboxService.enqueueAll(emails);
+        return emails.size();
+    }
+
+    public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
+        sendEmailFromTemplate(user, ACTIVATION_TEMPLATE, "email.activation.title");
     }
 
-    @Async
-    public void sendCreationEmail(User user) throws MessagingException, MailException{
+    public void sendCreationEmail(User user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
+        sendEmailFromTemplate(user, CREATION_TEMPLATE, "email.activation.title");
     }
 
-    @Async
-    public void sendPasswordResetMail(User user) throws MessagingException, MailException{
+    public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
+        sendEmailFromTemplate(user, PASSWORD_RESET_TEMPLATE, "email.reset.title");
+    }
+
+    /**
+     * Parse the email templates at startup, so that the first emails don't pay for it. Thymeleaf then
+     * keeps the parsed templates in its cache.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompileTemplates() {
+        if (!thymeleafProperties.isCache()) {
+            return;
+        }
+        User placeholder = new User();
+        placeholder.setLogin("");
+        Context context = createContext(Locale.forLanguageTag(Constants.DEFAULT_LANGUAGE), placeholder);
+        for (String template : TEMPLATES) {
+            try {
+                templateEngine.process(template, context);
+            } catch (TemplateEngineException e) {
+                log.warn("Email template '{}' could not be precompiled", template, e);
+            }
+        }
+        log.debug("Precompiled {} email templates", TEMPLATES.size());
+    }
+
+    private Context createContext(Locale locale, User user) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return context;
+    }
+
+    /**
+     * Subjects are cached per key and locale, unless the templates are reloaded on every use, as in development.
+     */
+    private String getSubject(String titleKey, Locale locale) {
+        if (!thymeleafProperties.isCache()) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return subjects.computeIfAbsent(titleKey + '|' + locale.toLanguageTag(), key -> messageSource.getMessage(titleKey, null, locale));
     }
 }
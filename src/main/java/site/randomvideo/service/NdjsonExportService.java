@@ -0,0 +1,114 @@
+package site.randomvideo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.randomvideo.domain.Video;
+import site.randomvideo.domain.VideoList;
+
+/**
+ * Service exporting whole tables as newline-delimited JSON.
+ * <p>
+ * Rows are written as they come off the database cursor and detached right away, so the
+ * heap used by an export doesn't depend on the number of rows. The MySQL driver only streams the rows one
+ * by one with a fetch size of {@link Integer#MIN_VALUE}, which the other drivers, like H2's, reject: they
+ * fetch {@link #FETCH_SIZE} rows at a time instead.
+ */
+@Service
+@Transactional(readOnly = true)
+public class NdjsonExportService {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final byte NEWLINE = '\n';
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final Logger log = LoggerFactory.getLogger(NdjsonExportService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectWriter objectWriter;
+
+    private final int fetchSize;
+
+    public NdjsonExportService(ObjectMapper objectMapper, EntityManagerFactory entityManagerFactory) {
+        this.objectWriter = objectMapper.writer();
+        boolean mysql =
+            entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect() instanceof MySQLDialect;
+        this.fetchSize = mysql ? MYSQL_STREAMING_FETCH_SIZE : FETCH_SIZE;
+    }
+
+    /**
+     * Write every video, ordered by id, one JSON object per line.
+     *
+     * @param out the stream to write to. It is flushed but not closed.
+     * @return the number of videos written.
+     */
+    public long exportVideos(OutputStream out) {
+        log.debug("Exporting all videos");
+        try (Stream<?> videos = streamAllOrderById("select video from Video video order by video.id", Video.class)) {
+            return write(videos, out);
+        }
+    }
+
+    /**
+     * Write every video list, ordered by id, one JSON object per line.
+     *
+     * @param out the stream to write to. It is flushed but not closed.
+     * @return the number of video lists written.
+     */
+    public long exportVideoLists(OutputStream out) {
+        log.debug("Exporting all video lists");
+        try (Stream<?> videoLists = streamAllOrderById("select videoList from VideoList videoList order by videoList.id", VideoList.class)) {
+            return write(videoLists, out);
+        }
+    }
+
+    /**
+     * Must be consumed inside the transaction, the rows are fetched as the stream is read.
+     */
+    private <T> Stream<T> streamAllOrderById(String query, Class<T> entityClass) {
+        return entityManager
+            .createQuery(query, entityClass)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+            .getResultStream();
+    }
+
+    private long write(Stream<?> rows, OutputStream out) {
+        long count = 0;
+        try {
+            for (Iterator<?> iterator = rows.iterator(); iterator.hasNext();) {
+                Object row = iterator.next();
+                out.write(objectWriter.writeValueAsBytes(row));
+                out.write(NEWLINE);
+                entityManager.detach(row);
+                count++;
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
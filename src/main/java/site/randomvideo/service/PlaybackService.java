@@ -0,0 +1,150 @@
+package site.randomvideo.service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.randomvideo.repository.VideoRepository;
+import site.randomvideo.repository.projection.PublicVideoDTO;
+import site.randomvideo.service.dto.PlaybackPageDTO;
+
+/**
+ * Service class serving random videos of a video list, and its shuffled playback order page by page.
+ * <p>
+ * A playback session is fully described by its cursor: the seed of a {@link SeededPermutation}
+ * and the next position in it. Nothing is stored on the server between pages.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PlaybackService {
+
+    private final Logger log = LoggerFactory.getLogger(PlaybackService.class);
+
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
+    private static final int CURSOR_LENGTH = Long.BYTES + Integer.BYTES;
+
+    private final VideoRepository videoRepository;
+
+    private final VideoListService videoListService;
+
+    public PlaybackService(VideoRepository videoRepository, VideoListService videoListService) {
+        this.videoRepository = videoRepository;
+        this.videoListService = videoListService;
+    }
+
+    /**
+     * Pick distinct random videos of a video list.
+     * <p>
+     * The picks are indexes into the cached ids of the videos, see {@link VideoListService#getVideoIdsBySlug},
+     * so only the picked videos are loaded, in a single query.
+     *
+     * @param slug the slug of the video list.
+     * @param count the number of videos to pick.
+     * @return the picked videos, fewer than {@code count} if the video list is smaller, or empty if the video list doesn't exist.
+     */
+    public Optional<List<PublicVideoDTO>> getRandomVideos(String slug, int count) {
+        return videoListService
+            .getVideoIdsBySlug(slug)
+            .map(videoIds -> {
+                int picks = Math.min(count, videoIds.length);
+                Set<Long> pickedIds = new LinkedHashSet<>();
+                while (pickedIds.size() < picks) {
+                    pickedIds.add(videoIds[ThreadLocalRandom.current().nextInt(videoIds.length)]);
+                }
+                return findPublicVideos(new ArrayList<>(pickedIds));
+            });
+    }
+
+    /**
+     * Get a page of the shuffled playback order of a video list.
+     * <p>
+     * If the video list changed since the session started, the permutation is recomputed for the
+     * new size, so a few videos may be repeated or skipped but the session stays valid.
+     *
+     * @param slug the slug of the video list.
+     * @param cursor the cursor returned with the previous page, or {@code null} to start a new session.
+     * @param size the maximum number of videos in the page.
+     * @return the page, or empty if the video list doesn't exist or has no videos.
+     * @throws IllegalArgumentException if the cursor is not a valid cursor.
+     */
+    public Optional<PlaybackPageDTO> getPage(String slug, String cursor, int size) {
+        long seed;
+        int position;
+        if (cursor == null) {
+            seed = ThreadLocalRandom.current().nextLong();
+            position = 0;
+        } else {
+            ByteBuffer decoded = decodeCursor(cursor);
+            seed = decoded.getLong();
+            position = decoded.getInt();
+        }
+
+        // the ids are cached by version of the videos, only the videos of the page are loaded
+        long[] videoIds = videoListService.getVideoIdsBySlug(slug).orElse(new long[0]);
+        if (videoIds.length == 0) {
+            return Optional.empty();
+        }
+        log.debug("Serving playback page of video list {} at position {}", slug, position);
+
+        SeededPermutation permutation = new SeededPermutation(seed, videoIds.length);
+        int end = Math.min(position + size, permutation.size());
+        List<Long> pageIds = new ArrayList<>(Math.max(end - position, 0));
+        for (int i = position; i < end; i++) {
+            pageIds.add(videoIds[permutation.indexAt(i)]);
+        }
+
+        String nextCursor = end < permutation.size() ? encodeCursor(seed, end) : null;
+        return Optional.of(new PlaybackPageDTO(findPublicVideos(pageIds), nextCursor, permutation.size()));
+    }
+
+    /**
+     * Load the videos of the given ids in a single query, in the order of the ids, skipping the ones deleted meanwhile.
+     */
+    private List<PublicVideoDTO> findPublicVideos(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, PublicVideoDTO> videosById = videoRepository
+            .findPublicVideosByIdIn(ids)
+            .stream()
+            .collect(Collectors.toMap(PublicVideoDTO::id, Function.identity()));
+        return ids.stream().map(videosById::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private static String encodeCursor(long seed, int position) {
+        ByteBuffer buffer = ByteBuffer.allocate(CURSOR_LENGTH).putLong(seed).putInt(position);
+        return CURSOR_ENCODER.encodeToString(buffer.array());
+    }
+
+    private static ByteBuffer decodeCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = CURSOR_DECODER.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid playback cursor", e);
+        }
+        if (bytes.length != CURSOR_LENGTH) {
+            throw new IllegalArgumentException("Invalid playback cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt(Long.BYTES) < 0) {
+            throw new IllegalArgumentException("Invalid playback cursor");
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,79 @@
+package site.randomvideo.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service evicting the second-level cache entries made stale by JDBC statements bypassing Hibernate.
+ * <p>
+ * Each entry is evicted twice: right away, so that the rest of the transaction reads its own write
+ * instead of the cached entry, and again once the transaction completes. Until then, a concurrent
+ * reader still sees the committed row and can put it back into the cache, where it would stay
+ * until it expires.
+ */
+@Service
+public class SecondLevelCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * @param entityClass the class of the entity.
+     * @param id the id of the entity.
+     */
+    public void evictEntity(Class<?> entityClass, Object id) {
+        evictEntities(entityClass, List.of(id));
+    }
+
+    /**
+     * @param entityClass the class of the entities.
+     * @param ids the ids of the entities.
+     */
+    public void evictEntities(Class<?> entityClass, Collection<?> ids) {
+        List<?> evicted = List.copyOf(ids);
+        evictNowAndAfterCompletion(cache -> evicted.forEach(id -> cache.evictEntityData(entityClass, id)));
+    }
+
+    /**
+     * @param role the role of the collection, like {@code site.randomvideo.domain.VideoList.videos}.
+     * @param ownerId the id of the entity owning the collection.
+     */
+    public void evictCollection(String role, Object ownerId) {
+        evictCollections(role, List.of(ownerId));
+    }
+
+    /**
+     * @param role the role of the collections, like {@code site.randomvideo.domain.VideoList.videos}.
+     * @param ownerIds the ids of the entities owning the collections.
+     */
+    public void evictCollections(String role, Collection<?> ownerIds) {
+        List<?> evicted = List.copyOf(ownerIds);
+        evictNowAndAfterCompletion(cache -> evicted.forEach(ownerId -> cache.evictCollectionData(role, ownerId)));
+    }
+
+    private void evictNowAndAfterCompletion(Consumer<Cache> eviction) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        eviction.accept(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        // on rollback too, the entries cached meanwhile may hold the rolled back writes
+                        eviction.accept(cache);
+                    }
+                }
+            );
+        }
+    }
+}
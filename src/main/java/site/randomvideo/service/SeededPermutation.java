@@ -0,0 +1,66 @@
+package site.randomvideo.service;
+
+/**
+ * A pseudo-random permutation of {@code [0, size)} derived from a seed.
+ * <p>
+ * Positions are mapped one at a time with a small Feistel network and cycle walking, so the
+ * permutation never has to be materialized: any position can be resolved in constant memory.
+ */
+public final class SeededPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final long seed;
+    private final int size;
+    private final int halfBits;
+    private final int halfMask;
+
+    public SeededPermutation(long seed, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        this.seed = seed;
+        this.size = size;
+        int bits = Math.max(2, 32 - Integer.numberOfLeadingZeros(size - 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1 << halfBits) - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param position a position in {@code [0, size)}.
+     * @return the index the position is mapped to, also in {@code [0, size)}.
+     */
+    public int indexAt(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException(position);
+        }
+        // the Feistel domain is at most four times the size, so cycle walking terminates quickly
+        int index = position;
+        do {
+            index = encrypt(index);
+        } while (index >= size);
+        return index;
+    }
+
+    private int encrypt(int value) {
+        int left = (value >>> halfBits) & halfMask;
+        int right = value & halfMask;
+        for (int round = 0; round < ROUNDS; round++) {
+            int next = left ^ (roundFunction(right, round) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private int roundFunction(int value, int round) {
+        long h = seed + (round * 0x9E3779B97F4A7C15L) + value;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33));
+    }
+}
@@ -0,0 +1,140 @@
+package site.randomvideo.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.randomvideo.domain.Video;
+import site.randomvideo.domain.XUser;
+
+/**
+ * Service importing many videos at once.
+ * <p>
+ * Videos use IDENTITY ids, which stops Hibernate from batching their inserts, so the rows are
+ * written with JDBC batches instead. With {@code rewriteBatchedStatements=true} on the MySQL
+ * URL each batch is sent as a single multi-row insert.
+ */
+@Service
+@Transactional
+public class VideoImportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_VIDEO_SQL = "INSERT INTO video (url, name, x_user_id) VALUES (?, ?, ?)";
+
+    private static final String XUSER_VIDEOS_ROLE = XUser.class.getName() + ".videos";
+
+    private static final Pattern YOUTUBE_URL = Pattern.compile(
+        "(https?://)?(www\\.)?(youtube\\.com/watch\\?v=|youtu\\.be/)([^\\s&?#]+)\\S*"
+    );
+
+    private static final int MAX_NAME_LENGTH = 50;
+
+    private final Logger log = LoggerFactory.getLogger(VideoImportService.class);
+
+    private final XUserService xUserService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Validator validator;
+
+    private final SecondLevelCacheEvictor cacheEvictor;
+
+    public VideoImportService(
+        XUserService xUserService,
+        JdbcTemplate jdbcTemplate,
+        Validator validator,
+        SecondLevelCacheEvictor cacheEvictor
+    ) {
+        this.xUserService = xUserService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.cacheEvictor = cacheEvictor;
+    }
+
+    /**
+     * Turn a pasted dump into videos: every line holding a YouTube link gives one video, named
+     * after the rest of the line, or after the YouTube id when the line holds nothing else.
+     *
+     * @param dump the pasted text.
+     * @return the videos found, in order.
+     */
+    public List<Video> parseDump(String dump) {
+        List<Video> videos = new ArrayList<>();
+        if (dump == null) {
+            return videos;
+        }
+        for (String line : dump.split("\\R")) {
+            Matcher matcher = YOUTUBE_URL.matcher(line);
+            if (!matcher.find()) {
+                continue;
+            }
+            String name = (line.substring(0, matcher.start()) + " " + line.substring(matcher.end())).strip();
+            if (name.isEmpty()) {
+                name = matcher.group(4);
+            }
+            if (name.length() > MAX_NAME_LENGTH) {
+                name = name.substring(0, MAX_NAME_LENGTH);
+            }
+            videos.add(new Video().url(matcher.group()).name(name));
+        }
+        return videos;
+    }
+
+    /**
+     * Insert videos for a user. The videos are validated in one pass before anything is written, and
+     * the per-user limit is then checked once for the whole batch, see {@link XUserService#addVideos}.
+     *
+     * @param xUserId the id of the owner of the new videos.
+     * @param videos the videos to insert. Their ids must be null.
+     * @return the number of videos inserted.
+     * @throws VideoLimitExceededException if the user would go over {@link XUserService#MAX_VIDEOS_PER_USER} videos.
+     * @throws IllegalArgumentException if one of the videos is invalid.
+     */
+    public int importVideos(Long xUserId, List<Video> videos) {
+        log.debug("Request to import {} Videos for XUser : {}", videos.size(), xUserId);
+        if (videos.size() > XUserService.MAX_VIDEOS_PER_USER) {
+            throw new VideoLimitExceededException(XUserService.MAX_VIDEOS_PER_USER);
+        }
+        for (int i = 0; i < videos.size(); i++) {
+            Video video = videos.get(i);
+            if (video == null) {
+                throw new IllegalArgumentException("Video #" + (i + 1) + " is missing");
+            }
+            if (video.getId() != null) {
+                throw new IllegalArgumentException("Video #" + (i + 1) + " already has an ID");
+            }
+            Set<ConstraintViolation<Video>> violations = validator.validate(video);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<Video> violation = violations.iterator().next();
+                throw new IllegalArgumentException("Video #" + (i + 1) + " has an invalid " + violation.getPropertyPath());
+            }
+        }
+        if (videos.isEmpty()) {
+            return 0;
+        }
+
+        xUserService.addVideos(xUserId, videos.size());
+        jdbcTemplate.batchUpdate(
+            INSERT_VIDEO_SQL,
+            videos,
+            BATCH_SIZE,
+            (ps, video) -> {
+                ps.setString(1, video.getUrl());
+                ps.setString(2, video.getName());
+                ps.setLong(3, xUserId);
+            }
+        );
+        // The rows bypassed Hibernate, so the cached videos collection of the owner is now stale.
+        cacheEvictor.evictCollection(XUSER_VIDEOS_ROLE, xUserId);
+        return videos.size();
+    }
+}
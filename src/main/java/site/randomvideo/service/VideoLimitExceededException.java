@@ -0,0 +1,10 @@
+package site.randomvideo.service;
+
+public class VideoLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public VideoLimitExceededException(int limit) {
+        super("You cannot have more than " + limit + " videos");
+    }
+}
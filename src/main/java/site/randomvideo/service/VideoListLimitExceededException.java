@@ -0,0 +1,10 @@
+package site.randomvideo.service;
+
+public class VideoListLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public VideoListLimitExceededException(int limit) {
+        super("You cannot have more than " + limit + " video lists");
+    }
+}
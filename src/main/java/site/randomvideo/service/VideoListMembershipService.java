@@ -0,0 +1,221 @@
+package site.randomvideo.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.randomvideo.domain.Video;
+import site.randomvideo.domain.VideoList;
+
+/**
+ * Service adding and removing videos of video lists.
+ * <p>
+ * Membership changes are written to the {@code rel_video_list__video} join table with a single
+ * statement, instead of loading and diffing the whole {@link VideoList#getVideos()} collection.
+ * The statements bypass Hibernate, so the cached collections they touch are evicted here, see
+ * {@link SecondLevelCacheEvictor}.
+ */
+@Service
+@Transactional
+public class VideoListMembershipService {
+
+    private static final String ADD_VIDEOS_SQL =
+        "INSERT IGNORE INTO rel_video_list__video (video_list_id, video_id) " +
+        "SELECT :videoListId, video.id FROM video WHERE video.id IN (:videoIds) AND video.x_user_id = :xUserId";
+
+    private static final String REMOVE_VIDEOS_SQL =
+        "DELETE FROM rel_video_list__video WHERE video_list_id = :videoListId AND video_id IN (:videoIds)";
+
+    private static final String REMOVE_ALL_VIDEOS_SQL = "DELETE FROM rel_video_list__video WHERE video_list_id = :videoListId";
+
+    private static final String FIND_VIDEO_LISTS_OF_OWNED_VIDEO_SQL =
+        "SELECT video_list.id, video_list.slug FROM rel_video_list__video " +
+        "JOIN video_list ON video_list.id = rel_video_list__video.video_list_id " +
+        "JOIN video ON video.id = rel_video_list__video.video_id " +
+        "WHERE rel_video_list__video.video_id = :videoId AND video.x_user_id = :xUserId";
+
+    private static final String REMOVE_VIDEO_FROM_ALL_VIDEO_LISTS_SQL = "DELETE FROM rel_video_list__video WHERE video_id = :videoId";
+
+    private static final String FIND_VIDEOS_OF_OWNED_VIDEO_LIST_SQL =
+        "SELECT rel_video_list__video.video_id FROM rel_video_list__video " +
+        "JOIN video_list ON video_list.id = rel_video_list__video.video_list_id " +
+        "WHERE rel_video_list__video.video_list_id = :videoListId AND video_list.x_user_id = :xUserId";
+
+    private static final String VIDEO_LIST_VIDEOS_ROLE = VideoList.class.getName() + ".videos";
+
+    private static final String VIDEO_VIDEO_LISTS_ROLE = Video.class.getName() + ".videoLists";
+
+    private final Logger log = LoggerFactory.getLogger(VideoListMembershipService.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final SecondLevelCacheEvictor cacheEvictor;
+
+    private final VideoListService videoListService;
+
+    public VideoListMembershipService(
+        NamedParameterJdbcTemplate jdbcTemplate,
+        SecondLevelCacheEvictor cacheEvictor,
+        VideoListService videoListService
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictor = cacheEvictor;
+        this.videoListService = videoListService;
+    }
+
+    /**
+     * Add videos to a video list. Videos which are already in the list, don't exist, or don't belong
+     * to the owner of the list are skipped.
+     *
+     * @param videoListId the id of the video list.
+     * @param slug the slug of the video list.
+     * @param xUserId the id of the owner of the video list.
+     * @param videoIds the ids of the videos to add.
+     * @return the number of videos added.
+     */
+    public int addVideos(Long videoListId, String slug, Long xUserId, Collection<Long> videoIds) {
+        log.debug("Request to add {} Videos to VideoList : {}", videoIds.size(), videoListId);
+        if (videoIds.isEmpty()) {
+            return 0;
+        }
+        int added = jdbcTemplate.update(ADD_VIDEOS_SQL, Map.of("videoListId", videoListId, "videoIds", videoIds, "xUserId", xUserId));
+        if (added > 0) {
+            cacheEvictor.evictCollections(VIDEO_VIDEO_LISTS_ROLE, videoIds);
+            membershipChanged(videoListId, slug);
+        }
+        return added;
+    }
+
+    /**
+     * Remove videos from a video list. Videos which are not in the list are skipped.
+     *
+     * @param videoListId the id of the video list.
+     * @param slug the slug of the video list.
+     * @param videoIds the ids of the videos to remove.
+     * @return the number of videos removed.
+     */
+    public int removeVideos(Long videoListId, String slug, Collection<Long> videoIds) {
+        log.debug("Request to remove {} Videos from VideoList : {}", videoIds.size(), videoListId);
+        if (videoIds.isEmpty()) {
+            return 0;
+        }
+        int removed = jdbcTemplate.update(REMOVE_VIDEOS_SQL, Map.of("videoListId", videoListId, "videoIds", videoIds));
+        if (removed > 0) {
+            cacheEvictor.evictCollections(VIDEO_VIDEO_LISTS_ROLE, videoIds);
+            membershipChanged(videoListId, slug);
+        }
+        return removed;
+    }
+
+    /**
+     * Replace the videos of a video list. Videos which don't exist or don't belong to the owner of
+     * the list are skipped.
+     * <p>
+     * The current videos are read first, so that only the removed videos are deleted, and only the cached
+     * collections of the removed and added videos are evicted. The content version of the list is left to
+     * the caller, which records the whole update with {@link VideoListService#videosChanged} once.
+     *
+     * @param videoListId the id of the video list.
+     * @param xUserId the id of the owner of the video list.
+     * @param videoIds the ids of the videos the list must hold.
+     * @return whether the videos of the list changed.
+     */
+    public boolean replaceVideos(Long videoListId, Long xUserId, Collection<Long> videoIds) {
+        log.debug("Request to replace the Videos of VideoList : {} with {} Videos", videoListId, videoIds.size());
+        List<Long> currentVideoIds = jdbcTemplate.queryForList(
+            FIND_VIDEOS_OF_OWNED_VIDEO_LIST_SQL,
+            Map.of("videoListId", videoListId, "xUserId", xUserId),
+            Long.class
+        );
+        Set<Long> removedVideoIds = new HashSet<>(currentVideoIds);
+        removedVideoIds.removeAll(videoIds);
+        Set<Long> addedVideoIds = new HashSet<>(videoIds);
+        addedVideoIds.removeAll(currentVideoIds);
+
+        int removed = removedVideoIds.isEmpty()
+            ? 0
+            : jdbcTemplate.update(REMOVE_VIDEOS_SQL, Map.of("videoListId", videoListId, "videoIds", removedVideoIds));
+        int added = addedVideoIds.isEmpty()
+            ? 0
+            : jdbcTemplate.update(ADD_VIDEOS_SQL, Map.of("videoListId", videoListId, "videoIds", addedVideoIds, "xUserId", xUserId));
+        if (removed + added == 0) {
+            return false;
+        }
+        cacheEvictor.evictCollection(VIDEO_LIST_VIDEOS_ROLE, videoListId);
+        cacheEvictor.evictCollections(VIDEO_VIDEO_LISTS_ROLE, removedVideoIds);
+        cacheEvictor.evictCollections(VIDEO_VIDEO_LISTS_ROLE, addedVideoIds);
+        return true;
+    }
+
+    /**
+     * Remove a video from all the video lists containing it, before deleting it. Nothing happens if
+     * the video belongs to another user.
+     * <p>
+     * Only the cached collections of the lists containing the video are evicted, and only those lists
+     * get their content version bumped.
+     *
+     * @param videoId the id of the video.
+     * @param xUserId the id of the owner of the video.
+     * @return the number of video lists the video was removed from.
+     */
+    public int removeVideoFromAllVideoLists(Long videoId, Long xUserId) {
+        log.debug("Request to remove Video : {} from all its VideoLists", videoId);
+        Map<String, Long> params = Map.of("videoId", videoId, "xUserId", xUserId);
+        List<Long> videoListIds = new ArrayList<>();
+        List<String> slugs = new ArrayList<>();
+        jdbcTemplate.query(
+            FIND_VIDEO_LISTS_OF_OWNED_VIDEO_SQL,
+            params,
+            rs -> {
+                videoListIds.add(rs.getLong(1));
+                slugs.add(rs.getString(2));
+            }
+        );
+        if (videoListIds.isEmpty()) {
+            return 0;
+        }
+        int removed = jdbcTemplate.update(REMOVE_VIDEO_FROM_ALL_VIDEO_LISTS_SQL, params);
+        cacheEvictor.evictCollection(VIDEO_VIDEO_LISTS_ROLE, videoId);
+        cacheEvictor.evictCollections(VIDEO_LIST_VIDEOS_ROLE, videoListIds);
+        videoListService.videosChanged(videoListIds, slugs);
+        return removed;
+    }
+
+    /**
+     * Remove all the videos of a video list, before deleting it. Nothing happens if the video list
+     * belongs to another user.
+     * <p>
+     * Only the cached collections of the removed videos are evicted.
+     *
+     * @param videoListId the id of the video list.
+     * @param xUserId the id of the owner of the video list.
+     * @return the number of videos removed.
+     */
+    public int removeAllVideos(Long videoListId, Long xUserId) {
+        log.debug("Request to remove all the Videos of VideoList : {}", videoListId);
+        List<Long> videoIds = jdbcTemplate.queryForList(
+            FIND_VIDEOS_OF_OWNED_VIDEO_LIST_SQL,
+            Map.of("videoListId", videoListId, "xUserId", xUserId),
+            Long.class
+        );
+        if (videoIds.isEmpty()) {
+            return 0;
+        }
+        int removed = jdbcTemplate.update(REMOVE_ALL_VIDEOS_SQL, Map.of("videoListId", videoListId));
+        cacheEvictor.evictCollection(VIDEO_LIST_VIDEOS_ROLE, videoListId);
+        cacheEvictor.evictCollections(VIDEO_VIDEO_LISTS_ROLE, videoIds);
+        return removed;
+    }
+
+    private void membershipChanged(Long videoListId, String slug) {
+        cacheEvictor.evictCollection(VIDEO_LIST_VIDEOS_ROLE, videoListId);
+        videoListService.videosChanged(List.of(videoListId), List.of(slug));
+    }
+}
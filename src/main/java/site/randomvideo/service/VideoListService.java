@@ -0,0 +1,257 @@
+package site.randomvideo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import site.randomvideo.domain.VideoList;
+import site.randomvideo.domain.XUser;
+import site.randomvideo.management.PlaylistMetersService;
+import site.randomvideo.repository.VideoListRepository;
+import site.randomvideo.repository.projection.PublicVideoDTO;
+import site.randomvideo.service.dto.SerializedVideosDTO;
+
+/**
+ * Service class for reading the public video lists by slug, and for the writes changing what they serve.
+ * <p>
+ * The videos of a video list are cached by slug as ready-to-send JSON bytes, see
+ * {@link VideoListRepository#VIDEOS_BY_SLUG_CACHE}, and checked against the content version of the video list
+ * before being served. On a cache miss, the time spent loading and serializing the videos is recorded by the
+ * {@link PlaylistMetersService}.
+ * Anything that changes a video list or one of its videos must call {@link #videosChanged}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class VideoListService {
+
+    private static final String UPDATE_VIDEO_LIST_SQL =
+        "UPDATE video_list SET name = :name, slug = :slug WHERE id = :id AND x_user_id = :xUserId";
+
+    private static final String DELETE_VIDEO_LIST_SQL = "DELETE FROM video_list WHERE id = :id AND x_user_id = :xUserId";
+
+    private static final String INCREMENT_CONTENT_VERSIONS_SQL =
+        "UPDATE video_list SET content_version = content_version + 1 WHERE id IN (:videoListIds)";
+
+    private static final String XUSER_VIDEO_LISTS_ROLE = XUser.class.getName() + ".videoLists";
+
+    private final Logger log = LoggerFactory.getLogger(VideoListService.class);
+
+    private final VideoListRepository videoListRepository;
+
+    private final CacheManager cacheManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final PlaylistMetersService playlistMetersService;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final SecondLevelCacheEvictor cacheEvictor;
+
+    public VideoListService(
+        VideoListRepository videoListRepository,
+        CacheManager cacheManager,
+        ObjectMapper objectMapper,
+        PlaylistMetersService playlistMetersService,
+        NamedParameterJdbcTemplate jdbcTemplate,
+        SecondLevelCacheEvictor cacheEvictor
+    ) {
+        this.videoListRepository = videoListRepository;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.playlistMetersService = playlistMetersService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictor = cacheEvictor;
+    }
+
+    /**
+     * Get the ETag of the videos of a video list without loading the videos.
+     *
+     * @param slug the slug of the video list.
+     * @return the ETag, or empty if there is no video list with this slug.
+     */
+    public Optional<String> getETagBySlug(String slug) {
+        return videoListRepository
+            .findContentVersionBySlug(slug)
+            .map(contentVersion -> eTag(contentVersion.getId(), contentVersion.getContentVersion()));
+    }
+
+    /**
+     * Get the videos of a video list serialized to JSON, so that cache hits need neither Jackson nor gzip.
+     * <p>
+     * The cached entry is served only if it has the current ETag: an entry put by a read that loaded the
+     * videos before a change committed is loaded again, instead of being served until it expires.
+     *
+     * @param slug the slug of the video list.
+     * @param eTag the current ETag of the videos, see {@link #getETagBySlug}.
+     * @return the serialized videos of the video list.
+     */
+    public SerializedVideosDTO getSerializedVideosBySlug(String slug, String eTag) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE));
+        SerializedVideosDTO cached = cache.get(slug, SerializedVideosDTO.class);
+        if (cached != null && cached.eTag().equals(eTag)) {
+            return cached;
+        }
+        log.debug("Loading videos of video list with slug: {}", slug);
+        // a projection only, no entity is loaded into the persistence context
+        List<PublicVideoDTO> videos = playlistMetersService.timeBySlugDb(() -> videoListRepository.findPublicVideosBySlug(slug));
+        SerializedVideosDTO serialized = playlistMetersService.timeBySlugSerialize(() -> serialize(eTag, videos));
+        cache.put(slug, serialized);
+        return serialized;
+    }
+
+    /**
+     * Get the ids of the videos of a video list, sorted. They are cached by version of the videos, see
+     * {@link VideoListRepository#VIDEO_IDS_BY_VERSION_CACHE}, so a change of the videos is never served stale ids.
+     *
+     * @param slug the slug of the video list.
+     * @return the shared array of the ids, not to be modified, or empty if there is no video list with this slug.
+     */
+    public Optional<long[]> getVideoIdsBySlug(String slug) {
+        return videoListRepository.findContentVersionBySlug(slug).map(this::getVideoIds);
+    }
+
+    private long[] getVideoIds(VideoListRepository.ContentVersion contentVersion) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(VideoListRepository.VIDEO_IDS_BY_VERSION_CACHE));
+        String key = eTag(contentVersion.getId(), contentVersion.getContentVersion());
+        long[] videoIds = cache.get(key, long[].class);
+        if (videoIds == null) {
+            videoIds = videoListRepository.findVideoIdsByVideoListId(contentVersion.getId()).stream().mapToLong(Long::longValue).toArray();
+            cache.put(key, videoIds);
+        }
+        return videoIds;
+    }
+
+    /**
+     * Update the name and slug of a video list only if it belongs to the given user. The statement bypasses
+     * Hibernate, so only the cached entity of this video list is evicted, see {@link SecondLevelCacheEvictor}.
+     *
+     * @param id the id of the video list.
+     * @param xUserId the id of the owner of the video list.
+     * @param name the new name.
+     * @param slug the new slug.
+     * @return the number of updated video lists, 0 if the video list doesn't exist or belongs to another user.
+     */
+    @Transactional
+    public int update(Long id, Long xUserId, String name, String slug) {
+        int updated = jdbcTemplate.update(UPDATE_VIDEO_LIST_SQL, Map.of("id", id, "xUserId", xUserId, "name", name, "slug", slug));
+        if (updated > 0) {
+            cacheEvictor.evictEntity(VideoList.class, id);
+        }
+        return updated;
+    }
+
+    /**
+     * Delete a video list only if it belongs to the given user. Its memberships must be deleted first, see
+     * {@link VideoListMembershipService#removeAllVideos}. The statement bypasses Hibernate, so only the cached
+     * entity of this video list and the cached video lists of its owner are evicted.
+     *
+     * @param id the id of the video list.
+     * @param xUserId the id of the owner of the video list.
+     * @return the number of deleted video lists, 0 if the video list doesn't exist or belongs to another user.
+     */
+    @Transactional
+    public int delete(Long id, Long xUserId) {
+        int deleted = jdbcTemplate.update(DELETE_VIDEO_LIST_SQL, Map.of("id", id, "xUserId", xUserId));
+        if (deleted > 0) {
+            cacheEvictor.evictEntity(VideoList.class, id);
+            cacheEvictor.evictCollection(XUSER_VIDEO_LISTS_ROLE, xUserId);
+        }
+        return deleted;
+    }
+
+    /**
+     * Record that the videos of some video lists changed: bump their content version and evict their cached videos.
+     * <p>
+     * The versions are bumped with a single statement bypassing Hibernate, so only the cached entities of
+     * these video lists are evicted, instead of the whole region a bulk update would clear.
+     *
+     * @param videoListIds the ids of the changed video lists.
+     * @param slugs the slugs of the changed video lists, including any former slug.
+     */
+    @Transactional
+    public void videosChanged(Collection<Long> videoListIds, Collection<String> slugs) {
+        if (!videoListIds.isEmpty()) {
+            jdbcTemplate.update(INCREMENT_CONTENT_VERSIONS_SQL, Map.of("videoListIds", videoListIds));
+            cacheEvictor.evictEntities(VideoList.class, videoListIds);
+        }
+        evictVideosBySlug(slugs);
+    }
+
+    /**
+     * Record that a video changed, in every video list containing it.
+     *
+     * @param videoId the id of the changed video.
+     */
+    @Transactional
+    public void videoChanged(Long videoId) {
+        videosChanged(videoListRepository.findIdsByVideoId(videoId), videoListRepository.findSlugsByVideoId(videoId));
+    }
+
+    /**
+     * Evict the cached videos of the given video lists once the current transaction commits. The cached
+     * videos are checked against the content version before being served anyway, so this only frees the
+     * entries that can't be served any more.
+     *
+     * @param slugs the slugs of the changed video lists.
+     */
+    public void evictVideosBySlug(Collection<String> slugs) {
+        if (slugs.isEmpty()) {
+            return;
+        }
+        List<String> evicted = List.copyOf(slugs);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evictNow(evicted);
+                    }
+                }
+            );
+        } else {
+            evictNow(evicted);
+        }
+    }
+
+    private static String eTag(Long videoListId, Long contentVersion) {
+        return "\"" + videoListId + "-" + contentVersion + "\"";
+    }
+
+    private SerializedVideosDTO serialize(String eTag, List<PublicVideoDTO> videos) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(videos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize videos", e);
+        }
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new SerializedVideosDTO(eTag, videos.size(), json, gzipped.toByteArray());
+    }
+
+    private void evictNow(Collection<String> slugs) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE));
+        slugs.forEach(cache::evict);
+    }
+}
@@ -0,0 +1,75 @@
+package site.randomvideo.service;
+
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.randomvideo.domain.Video;
+import site.randomvideo.domain.XUser;
+
+/**
+ * Service class writing the videos of their owner.
+ * <p>
+ * Each write checks the ownership in the statement itself. The statements bypass Hibernate, so only
+ * the cached entity of the written video is evicted, instead of the whole region a bulk JPQL statement clears,
+ * see {@link SecondLevelCacheEvictor}.
+ */
+@Service
+@Transactional
+public class VideoService {
+
+    private static final String UPDATE_VIDEO_SQL = "UPDATE video SET url = :url, name = :name WHERE id = :id AND x_user_id = :xUserId";
+
+    private static final String DELETE_VIDEO_SQL = "DELETE FROM video WHERE id = :id AND x_user_id = :xUserId";
+
+    private static final String XUSER_VIDEOS_ROLE = XUser.class.getName() + ".videos";
+
+    private final Logger log = LoggerFactory.getLogger(VideoService.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final SecondLevelCacheEvictor cacheEvictor;
+
+    public VideoService(NamedParameterJdbcTemplate jdbcTemplate, SecondLevelCacheEvictor cacheEvictor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictor = cacheEvictor;
+    }
+
+    /**
+     * Update a video only if it belongs to the given user.
+     *
+     * @param id the id of the video.
+     * @param xUserId the id of the owner of the video.
+     * @param url the new url.
+     * @param name the new name.
+     * @return the number of updated videos, 0 if the video doesn't exist or belongs to another user.
+     */
+    public int update(Long id, Long xUserId, String url, String name) {
+        log.debug("Request to update Video : {}", id);
+        int updated = jdbcTemplate.update(UPDATE_VIDEO_SQL, Map.of("id", id, "xUserId", xUserId, "url", url, "name", name));
+        if (updated > 0) {
+            cacheEvictor.evictEntity(Video.class, id);
+        }
+        return updated;
+    }
+
+    /**
+     * Delete a video only if it belongs to the given user. Its video list memberships must be deleted first,
+     * see {@link VideoListMembershipService#removeVideoFromAllVideoLists}.
+     *
+     * @param id the id of the video.
+     * @param xUserId the id of the owner of the video.
+     * @return the number of deleted videos, 0 if the video doesn't exist or belongs to another user.
+     */
+    public int delete(Long id, Long xUserId) {
+        log.debug("Request to delete Video : {}", id);
+        int deleted = jdbcTemplate.update(DELETE_VIDEO_SQL, Map.of("id", id, "xUserId", xUserId));
+        if (deleted > 0) {
+            cacheEvictor.evictEntity(Video.class, id);
+            cacheEvictor.evictCollection(XUSER_VIDEOS_ROLE, xUserId);
+        }
+        return deleted;
+    }
+}
@@ -1,41 +1,143 @@
 package site.randomvideo.service;
 
-import org.springframework.http.ResponseEntity;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import site.randomvideo.domain.User;
 import site.randomvideo.domain.XUser;
 import site.randomvideo.repository.XUserRepository;
+import site.randomvideo.security.SecurityUtils;
 import site.randomvideo.web.rest.errors.UserNotLoggedInException;
 import site.randomvideo.web.rest.errors.XUserNotFoundException;
 
-import java.net.URISyntaxException;
-
 /**
  * Service class for managing XUsers.
  */
 @Service
 @Transactional
 public class XUserService {
-    private final UserService userService;
+
+    public static final int MAX_VIDEOS_PER_USER = 5000;
+
+    public static final int MAX_VIDEO_LISTS_PER_USER = 1000;
+
+    private static final String ADD_VIDEOS_SQL =
+        "UPDATE x_user SET video_count = video_count + :count WHERE id = :id AND video_count + :count <= " + MAX_VIDEOS_PER_USER;
+
+    private static final String ADD_VIDEO_LISTS_SQL =
+        "UPDATE x_user SET video_list_count = video_list_count + :count WHERE id = :id AND video_list_count + :count <= " +
+        MAX_VIDEO_LISTS_PER_USER;
+
+    private static final String REMOVE_VIDEOS_SQL =
+        "UPDATE x_user SET video_count = GREATEST(video_count - :count, 0) WHERE id = :id";
+
+    private static final String REMOVE_VIDEO_LISTS_SQL =
+        "UPDATE x_user SET video_list_count = GREATEST(video_list_count - :count, 0) WHERE id = :id";
+
     private final XUserRepository xUserRepository;
 
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final SecondLevelCacheEvictor cacheEvictor;
+
     public XUserService(
-        UserService userService,
-        XUserRepository xUserRepository
+        XUserRepository xUserRepository,
+        NamedParameterJdbcTemplate jdbcTemplate,
+        SecondLevelCacheEvictor cacheEvictor
     ) {
-        this.userService = userService;
         this.xUserRepository = xUserRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictor = cacheEvictor;
     }
 
     /**
-     * @return the {@link XUser} of the logged-in user.
+     * The id is read from the JWT when it was minted with one, see {@link SecurityUtils#XUSER_ID_KEY}.
+     * Otherwise it's looked up by login, through the {@link XUserRepository#XUSER_IDS_BY_LOGIN_CACHE} cache.
+     *
+     * @return the id of the {@link XUser} of the logged-in user.
      * @throws UserNotLoggedInException if the user is not logged in.
-     * @throws XUserNotFoundException if the user is logged in but the XUser can't be found logged in.
+     * @throws XUserNotFoundException if the user is logged in but the XUser can't be found.
+     */
+    @Transactional(readOnly = true)
+    public Long getLoggedInXUserId() {
+        String login = getLoggedInLogin();
+        return SecurityUtils.getCurrentXUserId().or(() -> findXUserIdByLogin(login)).orElseThrow(() -> xUserNotFound(login));
+    }
+
+    /**
+     * @param login the login of a user.
+     * @return the id of the {@link XUser} of this user, or empty if they don't have one.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findXUserIdByLogin(String login) {
+        return xUserRepository.findIdByInternalUserLogin(login);
+    }
+
+    /**
+     * Count new videos of a user, in the same statement as checking the limit, so that concurrent
+     * creates can't go over it. Must run in the transaction inserting the videos.
+     *
+     * @param xUserId the id of the user.
+     * @param count the number of new videos.
+     * @throws VideoLimitExceededException if the user would go over {@link #MAX_VIDEOS_PER_USER} videos.
      */
-     public XUser getLoggedInXUser() {
-        User currentUser = userService.getUserWithAuthorities().orElseThrow(() -> new UserNotLoggedInException());
-        return xUserRepository.findOneByInternalUserId(currentUser.getId())
-            .orElseThrow(() -> new XUserNotFoundException(currentUser.getId()));
+    public void addVideos(Long xUserId, int count) {
+        if (!updateCount(ADD_VIDEOS_SQL, xUserId, count)) {
+            throw new VideoLimitExceededException(MAX_VIDEOS_PER_USER);
+        }
+    }
+
+    /**
+     * @param xUserId the id of the user.
+     * @param count the number of deleted videos.
+     */
+    public void removeVideos(Long xUserId, int count) {
+        updateCount(REMOVE_VIDEOS_SQL, xUserId, count);
+    }
+
+    /**
+     * Count new video lists of a user, see {@link #addVideos}.
+     *
+     * @param xUserId the id of the user.
+     * @param count the number of new video lists.
+     * @throws VideoListLimitExceededException if the user would go over {@link #MAX_VIDEO_LISTS_PER_USER} video lists.
+     */
+    public void addVideoLists(Long xUserId, int count) {
+        if (!updateCount(ADD_VIDEO_LISTS_SQL, xUserId, count)) {
+            throw new VideoListLimitExceededException(MAX_VIDEO_LISTS_PER_USER);
+        }
+    }
+
+    /**
+     * @param xUserId the id of the user.
+     * @param count the number of deleted video lists.
+     */
+    public void removeVideoLists(Long xUserId, int count) {
+        updateCount(REMOVE_VIDEO_LISTS_SQL, xUserId, count);
+    }
+
+    private boolean updateCount(String sql, Long xUserId, int count) {
+        if (count == 0) {
+            return true;
+        }
+        boolean updated = jdbcTemplate.update(sql, Map.of("id", xUserId, "count", count)) > 0;
+        if (updated) {
+            // the counts bypass Hibernate, only this user's cached entity is stale
+            cacheEvictor.evictEntity(XUser.class, xUserId);
+        }
+        return updated;
+    }
+
+    private static String getLoggedInLogin() {
+        Optional<String> login = SecurityUtils.isAuthenticated() ? SecurityUtils.getCurrentUserLogin() : Optional.empty();
+        if (login.isEmpty()) {
+            throw new UserNotLoggedInException();
+        }
+        return login.get();
+    }
+
+    private static RuntimeException xUserNotFound(String login) {
+        return new XUserNotFoundException(login);
     }
 }
@@ -0,0 +1,66 @@
+package site.randomvideo.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import site.randomvideo.repository.projection.PublicVideoDTO;
+
+/**
+ * A DTO representing one page of a video list's shuffled playback order.
+ */
+public class PlaybackPageDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<PublicVideoDTO> videos;
+
+    private String nextCursor;
+
+    private int total;
+
+    public PlaybackPageDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PlaybackPageDTO(List<PublicVideoDTO> videos, String nextCursor, int total) {
+        this.videos = videos;
+        this.nextCursor = nextCursor;
+        this.total = total;
+    }
+
+    public List<PublicVideoDTO> getVideos() {
+        return videos;
+    }
+
+    public void setVideos(List<PublicVideoDTO> videos) {
+        this.videos = videos;
+    }
+
+    /**
+     * @return the opaque cursor of the next page, or {@code null} if the playback order is exhausted.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PlaybackPageDTO{" +
+            "videos=" + videos.size() +
+            ", nextCursor='" + nextCursor + "'" +
+            ", total=" + total +
+            "}";
+    }
+}
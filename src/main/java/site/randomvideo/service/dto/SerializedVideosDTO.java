@@ -0,0 +1,14 @@
+package site.randomvideo.service.dto;
+
+import java.io.Serializable;
+import site.randomvideo.repository.projection.PublicVideoDTO;
+
+/**
+ * The videos of a public video list, already serialized to JSON, both as plain UTF-8 and gzipped bytes.
+ *
+ * @param eTag the strong ETag of the videos, made of the video list id and its content version.
+ * @param size the number of videos.
+ * @param json the UTF-8 JSON array of {@link PublicVideoDTO}.
+ * @param gzippedJson the same JSON, gzipped.
+ */
+public record SerializedVideosDTO(String eTag, int size, byte[] json, byte[] gzippedJson) implements Serializable {}
@@ -0,0 +1,37 @@
+package site.randomvideo.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the outcome of a bulk video import.
+ */
+public class VideoImportResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int created;
+
+    public VideoImportResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public VideoImportResultDTO(int created) {
+        this.created = created;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "VideoImportResultDTO{" +
+            "created=" + created +
+            "}";
+    }
+}
@@ -1,6 +1,5 @@
 package site.randomvideo.web.rest;
 
-import jakarta.mail.MessagingException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.*;
@@ -8,11 +7,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
-import org.springframework.mail.MailException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import site.randomvideo.domain.User;
 import site.randomvideo.repository.UserRepository;
+import site.randomvideo.security.LoginRateLimiter;
 import site.randomvideo.security.SecurityUtils;
 import site.randomvideo.service.MailService;
 import site.randomvideo.service.UserService;
@@ -44,27 +43,40 @@ public class AccountResource {
 
     private final MailService mailService;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final LoginRateLimiter loginRateLimiter;
+
+    public AccountResource(
+        UserRepository userRepository,
+        UserService userService,
+        MailService mailService,
+        LoginRateLimiter loginRateLimiter
+    ) {
         this.userRepository = userRepository;
         this.userService = userService;
         this.mailService = mailService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     /**
      * {@code POST  /register} : register the user.
      *
      * @param managedUserVM the managed user View Model.
+     * @param request the HTTP request.
      * @throws InvalidPasswordException {@code 400 (Bad Request)} if the password is incorrect.
      * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already used.
      * @throws LoginAlreadyUsedException {@code 400 (Bad Request)} if the login is already used.
+     * @throws TooManyRequestsException {@code 429 (Too Many Requests)} if the client sent too many requests hashing a password.
      */
     @Transactional
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
-    public void registerAccount(@Valid @RequestBody ManagedUserVM managedUserVM) throws MailException, MessagingException {
+    public void registerAccount(@Valid @RequestBody ManagedUserVM managedUserVM, HttpServletRequest request) {
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
+        if (!loginRateLimiter.tryAcquire(request.getRemoteAddr(), null)) {
+            throw new TooManyRequestsException();
+        }
         User user = userService.registerUser(managedUserVM, managedUserVM.getPassword());
         mailService.sendActivationEmail(user);
     }
@@ -133,13 +145,18 @@ public class AccountResource {
      * {@code POST  /account/change-password} : changes the current user's password.
      *
      * @param passwordChangeDto current and new password.
+     * @param request the HTTP request.
      * @throws InvalidPasswordException {@code 400 (Bad Request)} if the new password is incorrect.
+     * @throws TooManyRequestsException {@code 429 (Too Many Requests)} if the client sent too many requests hashing a password.
      */
     @PostMapping(path = "/account/change-password")
-    public void changePassword(@RequestBody PasswordChangeDTO passwordChangeDto) {
+    public void changePassword(@RequestBody PasswordChangeDTO passwordChangeDto, HttpServletRequest request) {
         if (isPasswordLengthInvalid(passwordChangeDto.getNewPassword())) {
             throw new InvalidPasswordException();
         }
+        if (!loginRateLimiter.tryAcquire(request.getRemoteAddr(), request.getRemoteUser())) {
+            throw new TooManyRequestsException();
+        }
         userService.changePassword(passwordChangeDto.getCurrentPassword(), passwordChangeDto.getNewPassword());
     }
 
@@ -149,7 +166,7 @@ public class AccountResource {
      * @param mail the mail of the user.
      */
     @PostMapping(path = "/account/reset-password/init")
-    public void requestPasswordReset(@RequestBody String mail) throws MailException, MessagingException {
+    public void requestPasswordReset(@RequestBody String mail) {
         Optional<User> user = userService.requestPasswordReset(mail);
         if (user.isPresent()) {
             mailService.sendPasswordResetMail(user.get());
@@ -164,14 +181,19 @@ public class AccountResource {
      * {@code POST   /account/reset-password/finish} : Finish to reset the password of the user.
      *
      * @param keyAndPassword the generated key and the new password.
+     * @param request the HTTP request.
      * @throws InvalidPasswordException {@code 400 (Bad Request)} if the password is incorrect.
+     * @throws TooManyRequestsException {@code 429 (Too Many Requests)} if the client sent too many requests hashing a password.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the password could not be reset.
      */
     @PostMapping(path = "/account/reset-password/finish")
-    public void finishPasswordReset(@RequestBody KeyAndPasswordVM keyAndPassword) {
+    public void finishPasswordReset(@RequestBody KeyAndPasswordVM keyAndPassword, HttpServletRequest request) {
         if (isPasswordLengthInvalid(keyAndPassword.getNewPassword())) {
             throw new InvalidPasswordException();
         }
+        if (!loginRateLimiter.tryAcquire(request.getRemoteAddr(), null)) {
+            throw new TooManyRequestsException();
+        }
         Optional<User> user = userService.completePasswordReset(keyAndPassword.getNewPassword(), keyAndPassword.getKey());
 
         if (!user.isPresent()) {
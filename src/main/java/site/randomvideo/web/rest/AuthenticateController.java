@@ -2,6 +2,7 @@ package site.randomvideo.web.rest;
 
 import static site.randomvideo.security.SecurityUtils.AUTHORITIES_KEY;
 import static site.randomvideo.security.SecurityUtils.JWT_ALGORITHM;
+import static site.randomvideo.security.SecurityUtils.XUSER_ID_KEY;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +26,10 @@ import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.web.bind.annotation.*;
+import site.randomvideo.management.SqlStatementBudget;
+import site.randomvideo.security.LoginRateLimiter;
+import site.randomvideo.service.XUserService;
+import site.randomvideo.web.rest.errors.TooManyRequestsException;
 import site.randomvideo.web.rest.vm.LoginVM;
 
 /**
@@ -46,13 +51,28 @@ public class AuthenticateController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final XUserService xUserService;
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        XUserService xUserService,
+        LoginRateLimiter loginRateLimiter
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.xUserService = xUserService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    @SqlStatementBudget(5)
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        if (!loginRateLimiter.tryAcquire(request.getRemoteAddr(), loginVM.getUsername())) {
+            throw new TooManyRequestsException();
+        }
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
@@ -90,15 +110,17 @@ public class AuthenticateController {
         }
 
         // @formatter:off
-        JwtClaimsSet claims = JwtClaimsSet.builder()
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
             .issuedAt(now)
             .expiresAt(validity)
             .subject(authentication.getName())
-            .claim(AUTHORITIES_KEY, authorities)
-            .build();
+            .claim(AUTHORITIES_KEY, authorities);
+        // @formatter:on
+        // carry the XUser id, so that requests made with this token don't need to look it up
+        xUserService.findXUserIdByLogin(authentication.getName()).ifPresent(xUserId -> claims.claim(XUSER_ID_KEY, xUserId));
 
         JwsHeader jwsHeader = JwsHeader.with(JWT_ALGORITHM).build();
-        return this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue();
+        return this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims.build())).getTokenValue();
     }
 
     /**
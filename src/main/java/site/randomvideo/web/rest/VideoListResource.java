@@ -1,7 +1,10 @@
 package site.randomvideo.web.rest;
 
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -9,24 +12,44 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.stream.Collectors;
 import jakarta.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import site.randomvideo.domain.Video;
 import site.randomvideo.domain.VideoList;
-import site.randomvideo.domain.XUser;
+import site.randomvideo.management.PlaylistMetersService;
+import site.randomvideo.management.SqlStatementBudget;
 import site.randomvideo.repository.XUserRepository;
 import site.randomvideo.repository.VideoListRepository;
+import site.randomvideo.repository.projection.PublicVideoDTO;
+import site.randomvideo.security.AuthoritiesConstants;
+import site.randomvideo.service.NdjsonExportService;
+import site.randomvideo.service.PlaybackService;
 import site.randomvideo.service.UserService;
+import site.randomvideo.service.VideoListLimitExceededException;
+import site.randomvideo.service.VideoListMembershipService;
+import site.randomvideo.service.VideoListService;
 import site.randomvideo.service.XUserService;
+import site.randomvideo.service.dto.PlaybackPageDTO;
+import site.randomvideo.service.dto.SerializedVideosDTO;
 import site.randomvideo.web.rest.errors.BadRequestAlertException;
 import site.randomvideo.web.rest.errors.UserNotLoggedInException;
+import site.randomvideo.web.rest.util.ContentEncodingUtil;
+import site.randomvideo.web.rest.util.KeysetPaginationUtil;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -42,6 +65,14 @@ public class VideoListResource {
 
     private static final String ENTITY_NAME = "videoList";
 
+    private static final int MAX_RANDOM_VIDEOS = 50;
+
+    private static final int MAX_PLAYBACK_PAGE_SIZE = 50;
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -51,13 +82,36 @@ public class VideoListResource {
 
     private final XUserRepository xUserRepository;
 
+    private final PlaybackService playbackService;
+
+    private final VideoListService videoListService;
 
+    private final NdjsonExportService ndjsonExportService;
 
-    public VideoListResource(VideoListRepository videoListRepository, UserService userService, XUserService xUserService, XUserRepository xUserRepository) {
+    private final VideoListMembershipService videoListMembershipService;
+
+    private final PlaylistMetersService playlistMetersService;
+
+    public VideoListResource(
+        VideoListRepository videoListRepository,
+        UserService userService,
+        XUserService xUserService,
+        XUserRepository xUserRepository,
+        PlaybackService playbackService,
+        VideoListService videoListService,
+        NdjsonExportService ndjsonExportService,
+        VideoListMembershipService videoListMembershipService,
+        PlaylistMetersService playlistMetersService
+    ) {
         this.videoListRepository = videoListRepository;
         this.userService = userService;
         this.xUserService = xUserService;
         this.xUserRepository = xUserRepository;
+        this.playbackService = playbackService;
+        this.videoListService = videoListService;
+        this.ndjsonExportService = ndjsonExportService;
+        this.videoListMembershipService = videoListMembershipService;
+        this.playlistMetersService = playlistMetersService;
     }
 
     /**
@@ -69,22 +123,26 @@ public class VideoListResource {
      * @throws UserNotLoggedInException if the user is not logged in.
      */
     @PostMapping("/video-lists")
+    @SqlStatementBudget(6)
     public ResponseEntity<VideoList> createVideoList(@Valid @RequestBody VideoList videoList) throws URISyntaxException {
         log.debug("REST request to save VideoList : {}", videoList);
         if (videoList.getId() != null) {
             throw new BadRequestAlertException("A new videoList cannot already have an ID", ENTITY_NAME, "idexists");
         }
 
-        XUser user = xUserService.getLoggedInXUser();
-        videoList.setXUser(user);
+        Long xUserId = xUserService.getLoggedInXUserId();
+        // only the id of the owner is written, no need to load it
+        videoList.setXUser(xUserRepository.getReferenceById(xUserId));
 
-        // Check the number of video lists for the user.
-        long count = videoListRepository.countByxUser(user);
-        if (count >= 1000) {
-            throw new BadRequestAlertException("You cannot have more than 5000 video lists", ENTITY_NAME, "limitexceeded");
+        // Count the video list, which fails if the user already has too many.
+        try {
+            xUserService.addVideoLists(xUserId, 1);
+        } catch (VideoListLimitExceededException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "limitexceeded");
         }
 
         VideoList result = videoListRepository.save(videoList);
+        videoListService.evictVideosBySlug(List.of(result.getSlug()));
         return ResponseEntity
             .created(new URI("/api/video-lists/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -98,10 +156,12 @@ public class VideoListResource {
      * @param videoList the videoList to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated videoList,
      * or with status {@code 400 (Bad Request)} if the videoList is not valid,
+     * or with status {@code 403 (Forbidden)} if the videoList belongs to another user,
      * or with status {@code 500 (Internal Server Error)} if the videoList couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/video-lists/{id}")
+    @SqlStatementBudget(10)
     public ResponseEntity<VideoList> updateVideoList(
         @PathVariable(value = "id", required = false) final Long id,
         @Valid @RequestBody VideoList videoList
@@ -114,25 +174,89 @@ public class VideoListResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!videoListRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        XUser currentXUser = xUserService.getLoggedInXUser();
-        VideoList currentVideoList = videoListRepository.findById(id).get();
-        if (!currentVideoList.getXUser().equals(currentXUser)) {
-//            throw new BadRequestAlertException("You are not allowed to edit this video list", ENTITY_NAME, "notallowed");
+        // the former slug is needed to evict its cached videos
+        VideoListRepository.SlugAndOwner current = videoListRepository
+            .findSlugAndOwnerById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        Long xUserId = xUserService.getLoggedInXUserId();
+        // the update statement checks the ownership again, in case the video list changed hands meanwhile
+        if (!xUserId.equals(current.getOwnerId()) || videoListService.update(id, xUserId, videoList.getName(), videoList.getSlug()) == 0) {
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
-
-        videoList.setXUser(currentXUser);
-        VideoList result = videoListRepository.save(videoList);
+        videoListMembershipService.replaceVideos(
+            id,
+            xUserId,
+            videoList.getVideos().stream().map(Video::getId).filter(Objects::nonNull).collect(Collectors.toSet())
+        );
+        // a single bump of the content version for the new name, slug and videos
+        videoListService.videosChanged(List.of(id), List.of(current.getSlug(), videoList.getSlug()));
+        VideoList result = videoListRepository.findOneWithEagerRelationships(id).orElseThrow();
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, videoList.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /video-lists/:id/videos} : Add videos to an existing videoList.
+     * Videos already in the videoList, and videos of other users, are skipped.
+     *
+     * @param id the id of the videoList.
+     * @param videoIds the ids of the videos to add.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 400 (Bad Request)} if the videoList is not found or there are too many ids,
+     * or with status {@code 403 (Forbidden)} if the videoList belongs to another user.
+     */
+    @PostMapping("/video-lists/{id}/videos")
+    @SqlStatementBudget(6)
+    public ResponseEntity<Void> addVideosToVideoList(@PathVariable Long id, @RequestBody Set<Long> videoIds) {
+        log.debug("REST request to add {} Videos to VideoList : {}", videoIds.size(), id);
+        return changeVideosOfVideoList(id, videoIds, videoListMembershipService::addVideos);
+    }
+
+    /**
+     * {@code DELETE  /video-lists/:id/videos} : Remove videos from an existing videoList.
+     *
+     * @param id the id of the videoList.
+     * @param videoIds the ids of the videos to remove.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 400 (Bad Request)} if the videoList is not found or there are too many ids,
+     * or with status {@code 403 (Forbidden)} if the videoList belongs to another user.
+     */
+    @DeleteMapping("/video-lists/{id}/videos")
+    @SqlStatementBudget(6)
+    public ResponseEntity<Void> removeVideosFromVideoList(@PathVariable Long id, @RequestBody Set<Long> videoIds) {
+        log.debug("REST request to remove {} Videos from VideoList : {}", videoIds.size(), id);
+        return changeVideosOfVideoList(
+            id,
+            videoIds,
+            (videoListId, slug, xUserId, ids) -> videoListMembershipService.removeVideos(videoListId, slug, ids)
+        );
+    }
+
+    private ResponseEntity<Void> changeVideosOfVideoList(
+        Long id,
+        Set<Long> videoIds,
+        MembershipChange change
+    ) {
+        if (videoIds.size() > XUserService.MAX_VIDEOS_PER_USER) {
+            throw new BadRequestAlertException("Too many videos", ENTITY_NAME, "toomanyvideos");
+        }
+        Long currentXUserId = xUserService.getLoggedInXUserId();
+        Optional<String> slug = videoListRepository.findSlugByIdAndXUserId(id, currentXUserId);
+        if (slug.isEmpty()) {
+            if (!videoListRepository.existsById(id)) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        change.change(id, slug.get(), currentXUserId, videoIds);
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
+            .build();
+    }
+
     /**
      * {@code PATCH  /video-lists/:id} : Partial updates given fields of an existing videoList, field will ignore if it is null
      *
@@ -184,63 +308,210 @@ public class VideoListResource {
     }
 
     /**
-     * {@code GET  /video-lists} : get all the videoLists.
-     * @param user if user=current is passed in, only the current user's videos will be returned.
-     *      Otherwise, all videos will be returned.
+     * {@code GET  /video-lists} : get the videoLists.
+     * @param user if user=current is passed in, only the current user's video lists will be returned.
+     *      Otherwise, a page of all video lists is returned, ordered by id.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @param afterId the id of the last video list of the previous page, when paginating all video lists.
+     * @param size the page size, when paginating all video lists.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of videoLists in body.
      */
     @GetMapping("/video-lists")
-    public List<VideoList> getAllVideoLists(@RequestParam(required = false, defaultValue = "false") boolean eagerload, @RequestParam(value = "user", required = false) String user) {
+    @SqlStatementBudget(15)
+    public ResponseEntity<List<VideoList>> getAllVideoLists(
+        @RequestParam(required = false, defaultValue = "false") boolean eagerload,
+        @RequestParam(value = "user", required = false) String user,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_ID_PARAM, required = false, defaultValue = "0") Long afterId,
+        @RequestParam(value = KeysetPaginationUtil.SIZE_PARAM, required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
         if (user != null){
             if (user.equals("current")){
-                XUser currentXUser = xUserService.getLoggedInXUser();
+                Long currentXUserId = xUserService.getLoggedInXUserId();
                 log.debug("REST request to get all VideoLists for current user");
                 if (eagerload) {
-                    return videoListRepository.findAllWithEagerRelationshipsByxUserId(currentXUser.getId());
+                    return ResponseEntity.ok(videoListRepository.findAllWithEagerRelationshipsByxUserId(currentXUserId));
                 } else {
-                    return videoListRepository.findAllByxUserId(currentXUser.getId());
+                    return ResponseEntity.ok(videoListRepository.findAllByxUserId(currentXUserId));
                 }
             } else {
                 throw new BadRequestAlertException("Invalid user", ENTITY_NAME, "userinvalid");
             }
         } else {
-            log.debug("REST request to get all VideoLists");
+            log.debug("REST request to get a page of VideoLists after id {}", afterId);
+            if (size < 1 || size > MAX_PAGE_SIZE) {
+                throw new BadRequestAlertException("Invalid size", ENTITY_NAME, "sizeinvalid");
+            }
+            List<VideoList> videoLists = videoListRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
             if (eagerload) {
-                return videoListRepository.findAllWithEagerRelationships();
-            } else {
-                return videoListRepository.findAll();
+                videoLists = videoListRepository.fetchBagRelationships(videoLists);
             }
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                videoLists,
+                size,
+                VideoList::getId
+            );
+            return ResponseEntity.ok().headers(headers).body(videoLists);
         }
     }
 
+    /**
+     * {@code GET  /video-lists} : export all the videoLists as newline-delimited JSON, ordered by id.
+     * <p>
+     * The video lists are streamed from the database as they are written, so the export runs in constant memory.
+     *
+     * @param response the HTTP response to write to.
+     * @throws IOException if the response can't be written.
+     */
+    @GetMapping(value = "/video-lists", produces = NdjsonExportService.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    @Transactional(readOnly = true)
+    public void exportAllVideoLists(HttpServletResponse response) throws IOException {
+        log.debug("REST request to export all VideoLists");
+        response.setContentType(NdjsonExportService.APPLICATION_NDJSON_VALUE);
+        ndjsonExportService.exportVideoLists(response.getOutputStream());
+    }
+
     /**
      * {@code GET  /video-lists/by-slug/:slug} : get the videos of a videoList with a specific slug.
+     * <p>
+     * The version of the videos is always looked up first: the response body is written from the pre-serialized
+     * (and pre-gzipped) cache entry as is when it has this version, and if the client already has this version,
+     * no video is loaded at all.
+     * The body is written here instead of by a message converter, so that the time spent writing it is measured.
      *
      * @param slug the slug of the videoList to get.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the videoList, or with status {@code 404 (Not Found)}.
+     * @param acceptEncoding the {@code Accept-Encoding} request header.
+     * @param webRequest the request, to check its {@code If-None-Match} header.
+     * @param response the response, with status {@code 200 (OK)} and with body the videos of the videoList,
+     * or with status {@code 304 (Not Modified)} if they didn't change.
+     * @throws IOException if the response can't be written.
      */
     @GetMapping("/video-lists/by-slug/{slug}")
-    public Set<Video> getVideosByVideoListSlug(@PathVariable @Pattern(regexp = "^(?!(api|internal-use)$)[a-zA-Z0-9-]+$", message = "Invalid slug") String slug){
+    @SqlStatementBudget(2)
+    public void getVideosByVideoListSlug(
+        @PathVariable @Pattern(regexp = "^(?!(api|internal-use)$)[a-zA-Z0-9-]+$", message = "Invalid slug") String slug,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        ServletWebRequest webRequest,
+        HttpServletResponse response
+    ) throws IOException {
         log.debug("REST request to get videos from video list with slug: {}", slug);
 
-        Optional<VideoList> videoList = videoListRepository.findOneWithEagerRelationshipsBySlug(slug);
-        if (!videoList.isPresent()) {
+        Optional<String> eTag = videoListService.getETagBySlug(slug);
+        if (eTag.isEmpty()) {
             throw new BadRequestAlertException("Video list not found.", ENTITY_NAME, "videolistnotfound");
         }
 
-        //get the list of videos from the videoList
-        Set<Video> videos = videoList.get().getVideos();
-        if (videos.isEmpty()) {
+        // no-cache lets browsers keep the videos, as long as they revalidate them with the ETag
+        // Spring matches the listed ETags, weak ones included, but "*" only for unsafe methods: any current version matches it
+        String ifNoneMatch = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if ((ifNoneMatch != null && ifNoneMatch.trim().equals("*")) || webRequest.checkNotModified(eTag.get())) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            response.setHeader(HttpHeaders.ETAG, eTag.get());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            return;
+        }
+
+        SerializedVideosDTO videos = videoListService.getSerializedVideosBySlug(slug, eTag.get());
+        if (videos.size() == 0) {
             // taking advantage of JHipster's already provided error message display on the
             // front end by just throwing an exception insetad of returning a 204 No Content.
             throw new BadRequestAlertException("Video list is empty.", ENTITY_NAME, "videolistempty");
             // return ResponseEntity.noContent().build(); // Return 204 No Content
         }
+        playlistMetersService.trackBySlugVideosServed(videos.size());
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, videos.eTag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = videos.json();
+        // the servlet container doesn't compress again responses that already have a Content-Encoding
+        if (ContentEncodingUtil.acceptsGzip(acceptEncoding)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = videos.gzippedJson();
+        }
+        response.setContentLength(body.length);
+        Timer.Sample write = playlistMetersService.startBySlugWrite();
+        try {
+            response.getOutputStream().write(body);
+            response.flushBuffer();
+        } finally {
+            playlistMetersService.stopBySlugWrite(write);
+        }
+    }
 
+    /**
+     * {@code GET  /video-lists/by-slug/:slug/random} : get random videos of a videoList with a specific slug.
+     * <p>
+     * The videos are picked on the server among the cached ids of the video list's videos, so only the
+     * picked videos are loaded instead of the whole list.
+     *
+     * @param slug the slug of the videoList to pick videos from.
+     * @param count the number of distinct videos to pick, capped by the size of the videoList.
+     * @return the list of randomly picked videos.
+     * @throws BadRequestAlertException if count is out of range, or the videoList is missing or empty.
+     */
+    @GetMapping("/video-lists/by-slug/{slug}/random")
+    @SqlStatementBudget(3)
+    public List<PublicVideoDTO> getRandomVideosByVideoListSlug(
+        @PathVariable @Pattern(regexp = "^(?!(api|internal-use)$)[a-zA-Z0-9-]+$", message = "Invalid slug") String slug,
+        @RequestParam(value = "count", required = false, defaultValue = "1") int count
+    ) {
+        log.debug("REST request to get {} random videos from video list with slug: {}", count, slug);
+        if (count < 1 || count > MAX_RANDOM_VIDEOS) {
+            throw new BadRequestAlertException("Invalid count", ENTITY_NAME, "countinvalid");
+        }
+
+        // the version lookup, the ids on a cache miss, then the picked videos in a single query
+        List<PublicVideoDTO> videos = playbackService
+            .getRandomVideos(slug, count)
+            .orElseThrow(() -> new BadRequestAlertException("Video list not found.", ENTITY_NAME, "videolistnotfound"));
+        if (videos.isEmpty()) {
+            throw new BadRequestAlertException("Video list is empty.", ENTITY_NAME, "videolistempty");
+        }
+        playlistMetersService.trackRandomVideosServed(videos.size());
         return videos;
     }
 
+    /**
+     * {@code GET  /video-lists/by-slug/:slug/playback} : get a page of the shuffled playback order of a videoList.
+     *
+     * @param slug the slug of the videoList to play.
+     * @param cursor the {@code nextCursor} of the previous page, or nothing to start a new playback session.
+     * @param size the maximum number of videos in the page.
+     * @return the page of videos and the cursor of the next page.
+     * @throws BadRequestAlertException if the cursor or size is invalid, or the videoList is missing or empty.
+     */
+    @GetMapping("/video-lists/by-slug/{slug}/playback")
+    @SqlStatementBudget(3)
+    public PlaybackPageDTO getPlaybackPageByVideoListSlug(
+        @PathVariable @Pattern(regexp = "^(?!(api|internal-use)$)[a-zA-Z0-9-]+$", message = "Invalid slug") String slug,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", required = false, defaultValue = "10") int size
+    ) {
+        log.debug("REST request to get playback page of video list with slug: {}, cursor: {}", slug, cursor);
+        if (size < 1 || size > MAX_PLAYBACK_PAGE_SIZE) {
+            throw new BadRequestAlertException("Invalid size", ENTITY_NAME, "sizeinvalid");
+        }
+
+        Optional<PlaybackPageDTO> page;
+        try {
+            page = playbackService.getPage(slug, cursor, size);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        if (page.isEmpty()) {
+            if (!videoListRepository.existsBySlug(slug)) {
+                throw new BadRequestAlertException("Video list not found.", ENTITY_NAME, "videolistnotfound");
+            }
+            throw new BadRequestAlertException("Video list is empty.", ENTITY_NAME, "videolistempty");
+        }
+        playlistMetersService.trackPlaybackVideosServed(page.get().getVideos().size());
+        return page.get();
+    }
+
     /**
      * {@code GET  /video-lists/:id} : get the "id" videoList.
      *
@@ -248,6 +519,7 @@ public class VideoListResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the videoList, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/video-lists/{id}")
+    @SqlStatementBudget(4)
     public ResponseEntity<VideoList> getVideoList(@PathVariable Long id) {
         log.debug("REST request to get VideoList : {}", id);
         Optional<VideoList> videoList = videoListRepository.findOneWithEagerRelationships(id);
@@ -258,28 +530,38 @@ public class VideoListResource {
      * {@code DELETE  /video-lists/:id} : delete the "id" videoList.
      *
      * @param id the id of the videoList to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 404 (Not Found)} if the videoList is not found,
+     * or with status {@code 403 (Forbidden)} if the videoList belongs to another user.
      */
     @DeleteMapping("/video-lists/{id}")
+    @SqlStatementBudget(9)
     public ResponseEntity<Void> deleteVideoList(@PathVariable Long id) {
         log.debug("REST request to delete VideoList : {}", id);
 
-        XUser currentXUser = xUserService.getLoggedInXUser();
-        VideoList videoListToDelete = videoListRepository.findById(id).get();
-        if (!videoListToDelete.getXUser().equals(currentXUser)) {
-//            throw new BadRequestAlertException("You are not allowed to delete this video list", ENTITY_NAME, "notallowed");
+        Long currentXUserId = xUserService.getLoggedInXUserId();
+        // reading the slug checks the ownership, the deletes below check it again
+        Optional<String> slug = videoListRepository.findSlugByIdAndXUserId(id, currentXUserId);
+        if (slug.isEmpty()) {
+            if (!videoListRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
-        // remove all relationships between this video list and its videos
-        for (Video video : videoListToDelete.getVideos()) {
-            video.getVideoLists().remove(videoListToDelete);
+        videoListMembershipService.removeAllVideos(id, currentXUserId);
+        if (videoListService.delete(id, currentXUserId) > 0) {
+            xUserService.removeVideoLists(currentXUserId, 1);
         }
-        videoListToDelete.getVideos().clear();
+        videoListService.evictVideosBySlug(List.of(slug.get()));
 
-        videoListRepository.deleteById(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    @FunctionalInterface
+    private interface MembershipChange {
+        int change(Long videoListId, String slug, Long xUserId, Set<Long> videoIds);
+    }
 }
@@ -1,29 +1,45 @@
 package site.randomvideo.web.rest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import site.randomvideo.domain.User;
 import site.randomvideo.domain.Video;
-import site.randomvideo.domain.VideoList;
-import site.randomvideo.domain.XUser;
+import site.randomvideo.management.SqlStatementBudget;
 import site.randomvideo.repository.VideoRepository;
 import site.randomvideo.repository.XUserRepository;
+import site.randomvideo.security.AuthoritiesConstants;
+import site.randomvideo.service.NdjsonExportService;
 import site.randomvideo.service.UserService;
+import site.randomvideo.service.VideoImportService;
+import site.randomvideo.service.VideoLimitExceededException;
+import site.randomvideo.service.VideoListMembershipService;
+import site.randomvideo.service.VideoListService;
+import site.randomvideo.service.VideoService;
 import site.randomvideo.service.XUserService;
+import site.randomvideo.service.dto.VideoImportResultDTO;
 import site.randomvideo.web.rest.errors.BadRequestAlertException;
 import site.randomvideo.web.rest.errors.UserNotLoggedInException;
+import site.randomvideo.web.rest.util.KeysetPaginationUtil;
+import site.randomvideo.web.rest.vm.BulkVideosVM;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -39,6 +55,10 @@ public class VideoResource {
 
     private static final String ENTITY_NAME = "video";
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -46,12 +66,32 @@ public class VideoResource {
     private final VideoRepository videoRepository;
     private final XUserRepository xUserRepository;
     private final XUserService xUserService;
+    private final VideoListService videoListService;
+    private final NdjsonExportService ndjsonExportService;
+    private final VideoImportService videoImportService;
+    private final VideoListMembershipService videoListMembershipService;
+    private final VideoService videoService;
 
-    public VideoResource(VideoRepository videoRepository, UserService userService, XUserRepository xUserRepository, XUserService xUserService) {
+    public VideoResource(
+        VideoRepository videoRepository,
+        VideoListMembershipService videoListMembershipService,
+        UserService userService,
+        XUserRepository xUserRepository,
+        XUserService xUserService,
+        VideoListService videoListService,
+        NdjsonExportService ndjsonExportService,
+        VideoImportService videoImportService,
+        VideoService videoService
+    ) {
         this.videoRepository = videoRepository;
+        this.videoListMembershipService = videoListMembershipService;
         this.userService = userService;
         this.xUserService = xUserService;
         this.xUserRepository = xUserRepository;
+        this.videoListService = videoListService;
+        this.ndjsonExportService = ndjsonExportService;
+        this.videoImportService = videoImportService;
+        this.videoService = videoService;
     }
 
     /**
@@ -62,19 +102,21 @@ public class VideoResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/videos")
+    @SqlStatementBudget(5)
     public ResponseEntity<Video> createVideo(@Valid @RequestBody Video video) throws URISyntaxException {
         log.debug("REST request to save Video : {}", video);
         if (video.getId() != null) {
             throw new BadRequestAlertException("A new video cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        XUser currentXUser = xUserService.getLoggedInXUser();
-        video.setXUser(currentXUser);
-        long count = videoRepository.countByxUser(currentXUser);
-        if (count >= 5000) {
-            throw new BadRequestAlertException("You cannot have more than 5000 videos", ENTITY_NAME, "limitexceeded");
+        Long currentXUserId = xUserService.getLoggedInXUserId();
+        // only the id of the owner is written, no need to load it
+        video.setXUser(xUserRepository.getReferenceById(currentXUserId));
+        try {
+            xUserService.addVideos(currentXUserId, 1);
+        } catch (VideoLimitExceededException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "limitexceeded");
         }
 
-
         Video result = videoRepository.save(video);
         return ResponseEntity
             .created(new URI("/api/videos/" + result.getId()))
@@ -82,6 +124,37 @@ public class VideoResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /videos/bulk} : Create many videos at once for the current user.
+     *
+     * @param bulkVideos the videos to create, and/or a pasted dump of YouTube links.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the number of videos created,
+     * or with status {@code 400 (Bad Request)} if a video is invalid or the user would go over the video limit.
+     */
+    @PostMapping("/videos/bulk")
+    @SqlStatementBudget(15)
+    public ResponseEntity<VideoImportResultDTO> createVideos(@RequestBody BulkVideosVM bulkVideos) {
+        log.debug("REST request to bulk save Videos : {}", bulkVideos);
+        List<Video> videos = new ArrayList<>();
+        if (bulkVideos.getVideos() != null) {
+            videos.addAll(bulkVideos.getVideos());
+        }
+        videos.addAll(videoImportService.parseDump(bulkVideos.getDump()));
+        Long currentXUserId = xUserService.getLoggedInXUserId();
+        int created;
+        try {
+            created = videoImportService.importVideos(currentXUserId, videos);
+        } catch (VideoLimitExceededException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "limitexceeded");
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "videoinvalid");
+        }
+        return ResponseEntity
+            .status(HttpStatus.CREATED)
+            .headers(HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".bulkCreated", String.valueOf(created)))
+            .body(new VideoImportResultDTO(created));
+    }
+
     /**
      * {@code PUT  /videos/:id} : Updates an existing video.
      *
@@ -93,6 +166,7 @@ public class VideoResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/videos/{id}")
+    @SqlStatementBudget(8)
     public ResponseEntity<Video> updateVideo(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Video video)
         throws URISyntaxException {
         log.debug("REST request to update Video : {}, {}", id, video);
@@ -103,21 +177,19 @@ public class VideoResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!videoRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        XUser currentXUser = xUserService.getLoggedInXUser();
-        Video currentVideo = videoRepository.findById(id).get();
-        if (!currentVideo.getXUser().equals(currentXUser)) {
-//            throw new BadRequestAlertException("You are not allowed to edit this video list", ENTITY_NAME, "notallowed");
+        // the ownership check and the update are a single statement
+        if (videoService.update(id, xUserService.getLoggedInXUserId(), video.getUrl(), video.getName()) == 0) {
+            if (!videoRepository.existsById(id)) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
-        video.setXUser(currentXUser);
-        Video result = videoRepository.save(video);
+        videoListService.videoChanged(id);
+        // the cached entity was evicted by the update, so this reads the updated row
+        Video result = videoRepository.findById(id).orElseThrow();
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, video.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
@@ -174,26 +246,59 @@ public class VideoResource {
     /**
      * {@code GET  /videos} : get videos.
      * @param user if user=current is passed in, only the current user's videos will be returned.
-     *      Otherwise, all videos will be returned.
-     * @throws BadRequestAlertException if the user is not null or "current"
+     *      Otherwise, a page of all videos is returned, ordered by id.
+     * @param afterId the id of the last video of the previous page, when paginating all videos.
+     * @param size the page size, when paginating all videos.
+     * @throws BadRequestAlertException if the user is not null or "current", or the size is invalid
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of videos in body.
      */
     @GetMapping("/videos")
-    public List<Video> getAllVideos(@RequestParam(value = "user", required = false) String user) {
+    @SqlStatementBudget(5)
+    public ResponseEntity<List<Video>> getAllVideos(
+        @RequestParam(value = "user", required = false) String user,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_ID_PARAM, required = false, defaultValue = "0") Long afterId,
+        @RequestParam(value = KeysetPaginationUtil.SIZE_PARAM, required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
         if (user != null) {
             if (user.equals("current")) {
                 log.debug("REST request to get current user's Videos");
-                XUser xUser = xUserService.getLoggedInXUser();
-                return videoRepository.findByxUserId(xUser.getId());
+                return ResponseEntity.ok(videoRepository.findByxUserId(xUserService.getLoggedInXUserId()));
             } else {
                 throw new BadRequestAlertException("Invalid user", ENTITY_NAME, "userinvalid");
             }
         } else {
-            log.debug("REST request to get all Videos");
-            return videoRepository.findAll();
+            log.debug("REST request to get a page of Videos after id {}", afterId);
+            if (size < 1 || size > MAX_PAGE_SIZE) {
+                throw new BadRequestAlertException("Invalid size", ENTITY_NAME, "sizeinvalid");
+            }
+            List<Video> videos = videoRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                videos,
+                size,
+                Video::getId
+            );
+            return ResponseEntity.ok().headers(headers).body(videos);
         }
     }
 
+    /**
+     * {@code GET  /videos} : export all the videos as newline-delimited JSON, ordered by id.
+     * <p>
+     * The videos are streamed from the database as they are written, so the export runs in constant memory.
+     *
+     * @param response the HTTP response to write to.
+     * @throws IOException if the response can't be written.
+     */
+    @GetMapping(value = "/videos", produces = NdjsonExportService.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    @Transactional(readOnly = true)
+    public void exportAllVideos(HttpServletResponse response) throws IOException {
+        log.debug("REST request to export all Videos");
+        response.setContentType(NdjsonExportService.APPLICATION_NDJSON_VALUE);
+        ndjsonExportService.exportVideos(response.getOutputStream());
+    }
+
 //    /**
 //     * {@code GET  /users/current/videos} : get all the current user's videos.
 //     *
@@ -214,6 +319,7 @@ public class VideoResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the video, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/videos/{id}")
+    @SqlStatementBudget(4)
     public ResponseEntity<Video> getVideo(@PathVariable Long id) {
         log.debug("REST request to get Video : {}", id);
         Optional<Video> video = videoRepository.findById(id);
@@ -224,24 +330,24 @@ public class VideoResource {
      * {@code DELETE  /videos/:id} : delete the "id" video.
      *
      * @param id the id of the video to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 404 (Not Found)} if the video is not found,
+     * or with status {@code 403 (Forbidden)} if the video belongs to another user.
      */
     @DeleteMapping("/videos/{id}")
+    @SqlStatementBudget(9)
     public ResponseEntity<Void> deleteVideo(@PathVariable Long id) {
         log.debug("REST request to delete Video : {}", id);
-        XUser currentXUser = xUserService.getLoggedInXUser();
-        Video videoToDelete = videoRepository.findById(id).get();
-        if (!videoToDelete.getXUser().equals(currentXUser)) {
-//            throw new BadRequestAlertException("You are not allowed to delete this video list", ENTITY_NAME, "notallowed");
+        Long currentXUserId = xUserService.getLoggedInXUserId();
+        // the memberships and the video are only deleted if the video belongs to the current user
+        videoListMembershipService.removeVideoFromAllVideoLists(id, currentXUserId);
+        if (videoService.delete(id, currentXUserId) == 0) {
+            if (!videoRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
-        // Remove the video from all video lists
-        for (VideoList videoList : videoToDelete.getVideoLists()) {
-            videoList.getVideos().remove(videoToDelete);
-        }
-        videoToDelete.getVideoLists().clear();
-
-        videoRepository.deleteById(id);
+        xUserService.removeVideos(currentXUserId, 1);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
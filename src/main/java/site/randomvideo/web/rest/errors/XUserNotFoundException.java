@@ -4,4 +4,8 @@ public class XUserNotFoundException extends RuntimeException {
     public XUserNotFoundException(Long userId) {
         super("XUser not found for user id: " + userId);
     }
+
+    public XUserNotFoundException(String login) {
+        super("XUser not found for user login: " + login);
+    }
 }
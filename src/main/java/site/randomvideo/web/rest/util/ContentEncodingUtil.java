@@ -0,0 +1,52 @@
+package site.randomvideo.web.rest.util;
+
+/**
+ * Utility class for negotiating the content coding of a response from the {@code Accept-Encoding} request header.
+ */
+public final class ContentEncodingUtil {
+
+    private ContentEncodingUtil() {}
+
+    /**
+     * Check whether a client accepts gzip, honouring the quality values: {@code gzip;q=0} refuses it, and
+     * {@code *} accepts it unless gzip is listed on its own.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} request header, or {@code null} if there is none.
+     * @return whether the response may be gzipped.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim();
+            boolean accepted = quality(parts) > 0;
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzip = (gzip != null && gzip) || accepted;
+            } else if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    /**
+     * Read the {@code q} parameter of an element of the header, 1 when absent and 0 when invalid.
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
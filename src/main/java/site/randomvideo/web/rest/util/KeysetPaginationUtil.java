@@ -0,0 +1,51 @@
+package site.randomvideo.web.rest.util;
+
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (id cursor) pagination.
+ * <p>
+ * Instead of a page number, clients pass the id of the last entity they got as {@code afterId}, so the
+ * database seeks straight to the next rows through the primary key whatever the position.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_ID_PARAM = "afterId";
+
+    public static final String SIZE_PARAM = "size";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Generate the {@code Link} header to the next page, if there may be one.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param content the entities of the current page, ordered by id.
+     * @param size the requested page size.
+     * @param idExtractor the function giving the id of an entity.
+     * @param <T> the type of the entities.
+     * @return the HTTP headers.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        List<T> content,
+        int size,
+        Function<T, Long> idExtractor
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (content.size() == size) {
+            Long lastId = idExtractor.apply(content.get(content.size() - 1));
+            String next = uriBuilder
+                .replaceQueryParam(AFTER_ID_PARAM, lastId)
+                .replaceQueryParam(SIZE_PARAM, size)
+                .toUriString()
+                .replace(",", "%2C")
+                .replace(";", "%3B");
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Utilities for the REST controllers.
+ */
+package site.randomvideo.web.rest.util;
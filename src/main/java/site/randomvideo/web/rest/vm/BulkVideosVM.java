@@ -0,0 +1,43 @@
+package site.randomvideo.web.rest.vm;
+
+import java.util.ArrayList;
+import java.util.List;
+import site.randomvideo.domain.Video;
+
+/**
+ * View Model object for a bulk video import: explicit videos, a pasted dump of YouTube links, or both.
+ */
+public class BulkVideosVM {
+
+    private List<Video> videos = new ArrayList<>();
+
+    private String dump;
+
+    public List<Video> getVideos() {
+        return videos;
+    }
+
+    public void setVideos(List<Video> videos) {
+        this.videos = videos;
+    }
+
+    /**
+     * @return free text with one YouTube link per line. The rest of the line, if any, is used as the video name.
+     */
+    public String getDump() {
+        return dump;
+    }
+
+    public void setDump(String dump) {
+        this.dump = dump;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkVideosVM{" +
+            "videos=" + (videos == null ? 0 : videos.size()) +
+            ", dump=" + (dump == null ? 0 : dump.length()) + " chars" +
+            '}';
+    }
+}
@@ -3,7 +3,6 @@ import { createAsyncThunk, createSlice } from '@reduxjs/toolkit';
 import { serializeAxiosError } from 'app/shared/reducers/reducer.utils';
 import { IVideo, defaultValue } from 'app/shared/model/video.model';
 import { IRootState } from 'app/config/store';
-import _ from 'lodash'; // for shuffling
 
 const initialState: RandomVideoState = {
   currentVideoIndex: -1,
@@ -12,6 +11,9 @@ const initialState: RandomVideoState = {
   hasPreviousVideo: false,
   hasNextVideo: false,
   loading: false,
+  nextCursor: null,
+  nextVideoRequested: false,
+  slug: null,
   videos: [],
 };
 
@@ -22,25 +24,67 @@ interface RandomVideoState {
   hasPreviousVideo: boolean;
   hasNextVideo: boolean;
   loading: boolean;
+  nextCursor: string | null;
+  // the next video was asked for past the loaded ones, it's shown once the next page is fetched
+  nextVideoRequested: boolean;
+  slug: string | null;
   videos: IVideo[];
 }
 
+interface IPlaybackPage {
+  videos: IVideo[];
+  nextCursor?: string | null;
+  total: number;
+}
+
+// The server shuffles the list, we only ask for small pages of its playback order.
+const PAGE_SIZE = 10;
+
 export const fetchVideos = createAsyncThunk(
   'randomVideo/fetch_videos',
   async (slug: string) => {
-    const requestUrl = `/api/video-lists/by-slug/${slug}`;
-    const response = await axios.get<Set<IVideo>>(requestUrl);
-    const videos = _.shuffle(Array.from(response.data));
-    return videos;
+    const requestUrl = `/api/video-lists/by-slug/${slug}/playback?size=${PAGE_SIZE}`;
+    const response = await axios.get<IPlaybackPage>(requestUrl);
+    return { slug, page: response.data };
   },
   { serializeError: serializeAxiosError }
 );
 
+export const fetchNextVideos = createAsyncThunk(
+  'randomVideo/fetch_next_videos',
+  async (_arg: void, thunkAPI) => {
+    const { slug, nextCursor } = (thunkAPI.getState() as IRootState).randomVideo;
+    const requestUrl = `/api/video-lists/by-slug/${slug}/playback?size=${PAGE_SIZE}&cursor=${encodeURIComponent(nextCursor)}`;
+    const response = await axios.get<IPlaybackPage>(requestUrl);
+    return response.data;
+  },
+  {
+    condition: (_arg: void, { getState }) => {
+      const { loading, nextCursor } = (getState() as IRootState).randomVideo;
+      return !loading && nextCursor !== null;
+    },
+    serializeError: serializeAxiosError,
+  }
+);
+
+const hasMoreVideos = (state: RandomVideoState) => state.currentVideoIndex < state.videos.length - 1 || state.nextCursor !== null;
+
+const advance = (state: RandomVideoState) => {
+  state.nextVideoRequested = false;
+  if (state.currentVideoIndex < state.videos.length - 1) {
+    state.currentVideoIndex += 1;
+    state.currentVideo = state.videos[state.currentVideoIndex];
+    state.hasNextVideo = hasMoreVideos(state);
+    state.hasPreviousVideo = true;
+  }
+};
+
 export const RandomVideoSlice = createSlice({
   name: 'randomVideo',
   initialState,
   reducers: {
     previousVideo(state) {
+      state.nextVideoRequested = false;
       if (state.currentVideoIndex > 0) {
         state.currentVideoIndex -= 1;
         state.currentVideo = state.videos[state.currentVideoIndex];
@@ -48,36 +92,56 @@ export const RandomVideoSlice = createSlice({
         state.hasNextVideo = true;
       }
     },
+    // Show the next loaded video, or the first of the next page once it is fetched.
     nextVideo(state) {
       if (state.currentVideoIndex < state.videos.length - 1) {
-        state.currentVideoIndex += 1;
-        state.currentVideo = state.videos[state.currentVideoIndex];
-        state.hasNextVideo = state.currentVideoIndex < state.videos.length - 1;
-        state.hasPreviousVideo = true;
+        advance(state);
+      } else if (state.nextCursor !== null) {
+        state.nextVideoRequested = true;
       }
     },
   },
-  extraReducers: (builder) => {
+  extraReducers: builder => {
     builder
-      .addCase(fetchVideos.pending, (state) => {
+      .addCase(fetchVideos.pending, state => {
         state.errorMessage = null;
         state.loading = true;
       })
       .addCase(fetchVideos.fulfilled, (state, action) => {
         state.loading = false;
-        state.videos = action.payload;
+        state.slug = action.payload.slug;
+        state.videos = action.payload.page.videos;
+        state.nextCursor = action.payload.page.nextCursor ?? null;
+        state.nextVideoRequested = false;
         state.currentVideoIndex = 0;
         state.currentVideo = state.videos[0];
-        state.hasNextVideo = state.videos.length > 0;
+        state.hasNextVideo = hasMoreVideos(state);
         state.hasPreviousVideo = false;
       })
       .addCase(fetchVideos.rejected, (state, action) => {
         state.loading = false;
         state.errorMessage = action.error.message;
+      })
+      .addCase(fetchNextVideos.pending, state => {
+        state.loading = true;
+      })
+      .addCase(fetchNextVideos.fulfilled, (state, action) => {
+        state.loading = false;
+        state.videos = state.videos.concat(action.payload.videos);
+        state.nextCursor = action.payload.nextCursor ?? null;
+        state.hasNextVideo = hasMoreVideos(state);
+        if (state.nextVideoRequested) {
+          advance(state);
+        }
+      })
+      .addCase(fetchNextVideos.rejected, (state, action) => {
+        state.loading = false;
+        state.nextVideoRequested = false;
+        state.errorMessage = action.error.message;
       });
   },
 });
 
 export const { previousVideo, nextVideo } = RandomVideoSlice.actions;
 
-export default RandomVideoSlice.reducer;
\ No newline at end of file
+export default RandomVideoSlice.reducer;
@@ -2,7 +2,7 @@ import React, { useEffect } from 'react';
 import { Button, Col, Row } from 'reactstrap';
 import { locales, languages } from 'app/config/translation';
 import { useAppDispatch, useAppSelector } from 'app/config/store';
-import { fetchVideos, nextVideo, previousVideo } from './random-video-reducer';
+import { fetchNextVideos, fetchVideos, nextVideo, previousVideo } from './random-video-reducer';
 import { useParams, useLocation, Link } from 'react-router-dom';
 import './random-video.scss';
 import { Translate, translate } from 'react-jhipster';
@@ -14,6 +14,9 @@ export const RandomVideoPage = () => {
   const randomVideo = useAppSelector(state => state.randomVideo.currentVideo);
   const hasPreviousVideo = useAppSelector(state => state.randomVideo.hasPreviousVideo);
   const hasNextVideo = useAppSelector(state => state.randomVideo.hasNextVideo);
+  const currentVideoIndex = useAppSelector(state => state.randomVideo.currentVideoIndex);
+  const loadedVideoCount = useAppSelector(state => state.randomVideo.videos.length);
+  const loading = useAppSelector(state => state.randomVideo.loading);
   let { slug } = useParams();
   let location = useLocation();
 
@@ -96,8 +99,20 @@ export const RandomVideoPage = () => {
     dispatch(previousVideo());
   }
 
+  // Fetch the next page of the playback order shortly before running out of loaded videos.
+  useEffect(() => {
+    if (currentVideoIndex >= 0 && loadedVideoCount - currentVideoIndex <= 3) {
+      dispatch(fetchNextVideos());
+    }
+  }, [dispatch, currentVideoIndex, loadedVideoCount]);
+
+  // Past the loaded videos, the next one is shown when the page being fetched arrives, whether
+  // this click or the prefetch above started fetching it.
   function dispatchNextVideo(): void {
     dispatch(nextVideo());
+    if (currentVideoIndex >= loadedVideoCount - 1) {
+      dispatch(fetchNextVideos());
+    }
   }
 
   return (
@@ -118,7 +133,7 @@ export const RandomVideoPage = () => {
           <div className="video-controls">
             <div className="button-group">
               <Button onClick={dispatchPreviousVideo} disabled={!hasPreviousVideo}>{translate("randomVideo.previousVideo")}</Button>
-              <Button onClick={dispatchNextVideo} disabled={!hasNextVideo}>{ hasNextVideo ? translate("randomVideo.nextVideo") : translate("randomVideo.noVideosLeft")}</Button>
+              <Button onClick={dispatchNextVideo} disabled={!hasNextVideo || loading}>{ hasNextVideo ? translate("randomVideo.nextVideo") : translate("randomVideo.noVideosLeft")}</Button>
             </div>
           </div>
 
@@ -0,0 +1,37 @@
+package site.randomvideo.config;
+
+import java.util.List;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+import site.randomvideo.management.SqlStatementBudgetInterceptor;
+
+/**
+ * Fail the tests during which a REST endpoint ran more SQL statements than its {@link site.randomvideo.management.SqlStatementBudget}.
+ */
+public class SqlStatementBudgetTestExecutionListener implements TestExecutionListener {
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+        // requests made while setting up the context are not the test's
+        violations(testContext);
+    }
+
+    @Override
+    public void afterTestMethod(TestContext testContext) {
+        List<String> violations = violations(testContext);
+        if (!violations.isEmpty()) {
+            throw new AssertionError("SQL statement budget exceeded:\n" + String.join("\n", violations));
+        }
+    }
+
+    private List<String> violations(TestContext testContext) {
+        if (!testContext.hasApplicationContext()) {
+            return List.of();
+        }
+        SqlStatementBudgetInterceptor interceptor = testContext
+            .getApplicationContext()
+            .getBeanProvider(SqlStatementBudgetInterceptor.class)
+            .getIfAvailable();
+        return interceptor == null ? List.of() : interceptor.drainViolations();
+    }
+}
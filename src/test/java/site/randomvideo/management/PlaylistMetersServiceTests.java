@@ -0,0 +1,72 @@
+package site.randomvideo.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PlaylistMetersServiceTests {
+
+    private static final String VIDEOS_SERVED_METER_EXPECTED_NAME = "playlist.videos.served";
+
+    private static final String BY_SLUG_METER_EXPECTED_NAME = "playlist.by-slug.phase";
+
+    private MeterRegistry meterRegistry;
+
+    private PlaylistMetersService playlistMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        playlistMetersService = new PlaylistMetersService(meterRegistry);
+    }
+
+    @Test
+    void testMetersByEndpointAndPhaseAreCreated() {
+        Collection<DistributionSummary> summaries = meterRegistry.find(VIDEOS_SERVED_METER_EXPECTED_NAME).summaries();
+
+        assertThat(summaries).hasSize(3);
+
+        Collection<Timer> timers = meterRegistry.find(BY_SLUG_METER_EXPECTED_NAME).timers();
+
+        assertThat(timers).hasSize(3);
+    }
+
+    @Test
+    void testTrackMethodsShouldBeBoundToCorrectMeters() {
+        playlistMetersService.trackBySlugVideosServed(42);
+
+        assertThat(meterRegistry.get(VIDEOS_SERVED_METER_EXPECTED_NAME).tag("endpoint", "by-slug").summary().totalAmount()).isEqualTo(42);
+
+        assertThat(meterRegistry.get(VIDEOS_SERVED_METER_EXPECTED_NAME).tag("endpoint", "random").summary().count()).isZero();
+
+        playlistMetersService.trackRandomVideosServed(1);
+
+        assertThat(meterRegistry.get(VIDEOS_SERVED_METER_EXPECTED_NAME).tag("endpoint", "random").summary().count()).isEqualTo(1);
+
+        playlistMetersService.trackPlaybackVideosServed(10);
+
+        assertThat(meterRegistry.get(VIDEOS_SERVED_METER_EXPECTED_NAME).tag("endpoint", "playback").summary().totalAmount()).isEqualTo(10);
+    }
+
+    @Test
+    void testTimeMethodsShouldBeBoundToCorrectPhases() {
+        assertThat(playlistMetersService.timeBySlugDb(() -> "videos")).isEqualTo("videos");
+
+        assertThat(meterRegistry.get(BY_SLUG_METER_EXPECTED_NAME).tag("phase", "db").timer().count()).isEqualTo(1);
+
+        playlistMetersService.timeBySlugSerialize(() -> new byte[0]);
+
+        assertThat(meterRegistry.get(BY_SLUG_METER_EXPECTED_NAME).tag("phase", "serialize").timer().count()).isEqualTo(1);
+
+        playlistMetersService.stopBySlugWrite(playlistMetersService.startBySlugWrite());
+
+        assertThat(meterRegistry.get(BY_SLUG_METER_EXPECTED_NAME).tag("phase", "write").timer().count()).isEqualTo(1);
+    }
+}
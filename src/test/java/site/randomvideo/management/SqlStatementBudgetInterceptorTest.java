@@ -0,0 +1,100 @@
+package site.randomvideo.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import site.randomvideo.config.ApplicationProperties;
+
+class SqlStatementBudgetInterceptorTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private SqlStatementBudgetInterceptor interceptor;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSqlBudget().setFailOnViolation(true);
+        interceptor = new SqlStatementBudgetInterceptor(meterRegistry, applicationProperties);
+    }
+
+    @Test
+    void testStatementsAreRecordedPerUriPattern() throws Exception {
+        handle(handlerMethod("withBudget"), 2);
+
+        assertThat(meterRegistry.get("sql.statements.request").tag("uri", "/api/test/{id}").tag("method", "GET").summary().totalAmount())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get("sql.time.request").tag("uri", "/api/test/{id}").timer().count()).isEqualTo(1);
+        assertThat(interceptor.drainViolations()).isEmpty();
+    }
+
+    @Test
+    void testRequestOverItsBudgetIsAViolation() throws Exception {
+        handle(handlerMethod("withBudget"), 3);
+
+        assertThat(interceptor.drainViolations()).singleElement().asString().contains("ran 3 SQL statements", "budget of 2", "withBudget");
+        assertThat(interceptor.drainViolations()).isEmpty();
+        assertThat(meterRegistry.get("sql.statements.budget.exceeded").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testDefaultBudgetAppliesToHandlersWithoutBudget() throws Exception {
+        handle(handlerMethod("withoutBudget"), 100);
+
+        assertThat(interceptor.drainViolations()).isEmpty();
+
+        applicationProperties.getSqlBudget().setDefaultStatements(10);
+        handle(handlerMethod("withoutBudget"), 11);
+
+        assertThat(interceptor.drainViolations()).hasSize(1);
+    }
+
+    @Test
+    void testRequestsLeftOutOfTheSampleAreNotCounted() throws Exception {
+        applicationProperties.getSqlBudget().setSampleRate(0);
+        handle(handlerMethod("withBudget"), 3);
+
+        assertThat(meterRegistry.find("sql.statements.request").summary()).isNull();
+        assertThat(interceptor.drainViolations()).isEmpty();
+    }
+
+    @Test
+    void testStatementsOutsideOfRequestsAreNotCounted() {
+        SqlStatementCounter.record(1);
+
+        assertThat(SqlStatementCounter.stop()).isNull();
+    }
+
+    private void handle(Object handler, int statements) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/test/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        for (int i = 0; i < statements; i++) {
+            SqlStatementCounter.record(1_000);
+        }
+        interceptor.afterCompletion(request, response, handler, null);
+    }
+
+    private static HandlerMethod handlerMethod(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new TestController(), TestController.class.getMethod(name));
+    }
+
+    static class TestController {
+
+        @SqlStatementBudget(2)
+        public void withBudget() {}
+
+        public void withoutBudget() {}
+    }
+}
@@ -0,0 +1,70 @@
+package site.randomvideo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import site.randomvideo.IntegrationTest;
+import site.randomvideo.domain.Video;
+import site.randomvideo.domain.VideoList;
+
+/**
+ * Integration tests for the eager loading of the videos of many video lists, with chunks smaller than
+ * the number of video lists.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.repository.bag-fetch-chunk-size=2")
+class VideoListRepositoryWithBagRelationshipsIT {
+
+    private static final int VIDEO_LISTS = 5;
+
+    @Autowired
+    private VideoListRepository videoListRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    @Transactional
+    void fetchBagRelationshipsKeepsTheOrderAcrossChunks() {
+        List<VideoList> videoLists = new ArrayList<>();
+        for (int i = 0; i < VIDEO_LISTS; i++) {
+            VideoList videoList = new VideoList().name("AAAAAAAAAA").slug("bag-fetch-" + i);
+            // a different number of videos per video list, including none
+            for (int j = 0; j < i; j++) {
+                Video video = new Video().url("youtu.be/H,4c").name("AAAAAAAAAA");
+                em.persist(video);
+                videoList.addVideo(video);
+            }
+            em.persist(videoList);
+            videoLists.add(videoList);
+        }
+        em.flush();
+        em.clear();
+
+        // neither in id order nor in reverse id order
+        List<Long> ids = List.of(
+            videoLists.get(3).getId(),
+            videoLists.get(0).getId(),
+            videoLists.get(4).getId(),
+            videoLists.get(1).getId(),
+            videoLists.get(2).getId()
+        );
+        List<VideoList> unfetched = ids.stream().map(id -> em.find(VideoList.class, id)).toList();
+        assertThat(unfetched).allSatisfy(videoList -> assertThat(Hibernate.isInitialized(videoList.getVideos())).isFalse());
+
+        List<VideoList> fetched = videoListRepository.fetchBagRelationships(unfetched);
+
+        assertThat(fetched).extracting(VideoList::getId).containsExactlyElementsOf(ids);
+        for (VideoList videoList : fetched) {
+            assertThat(Hibernate.isInitialized(videoList.getVideos())).isTrue();
+            assertThat(videoList.getVideos()).hasSize(Integer.parseInt(videoList.getSlug().substring("bag-fetch-".length())));
+        }
+    }
+}
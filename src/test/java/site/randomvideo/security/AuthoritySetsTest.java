@@ -0,0 +1,50 @@
+package site.randomvideo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Test class for the {@link AuthoritySets} registry.
+ */
+class AuthoritySetsTest {
+
+    @Test
+    void testSameSetWhateverTheOrderOfTheNames() {
+        List<GrantedAuthority> set = AuthoritySets.of(List.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
+
+        assertThat(set)
+            .containsExactly(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        assertThat(AuthoritySets.of(Set.of(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER))).isSameAs(set);
+        assertThat(AuthoritySets.fromClaim("ROLE_USER ROLE_ADMIN")).isSameAs(set);
+        assertThat(AuthoritySets.fromClaim("ROLE_ADMIN ROLE_USER")).isSameAs(set);
+        assertThat(AuthoritySets.fromClaim(List.of("ROLE_USER", "ROLE_ADMIN"))).isSameAs(set);
+    }
+
+    @Test
+    void testAuthoritiesAreSharedAcrossSets() {
+        GrantedAuthority user = AuthoritySets.of(List.of(AuthoritiesConstants.USER)).get(0);
+
+        assertThat(AuthoritySets.fromClaim("ROLE_ADMIN ROLE_USER").get(1)).isSameAs(user);
+    }
+
+    @Test
+    void testSetsAreImmutable() {
+        List<GrantedAuthority> set = AuthoritySets.fromClaim("ROLE_USER");
+
+        assertThatThrownBy(() -> set.add(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN)))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testEmptyClaims() {
+        assertThat(AuthoritySets.fromClaim(null)).isEmpty();
+        assertThat(AuthoritySets.fromClaim("")).isEmpty();
+        assertThat(AuthoritySets.fromClaim(List.of())).isEmpty();
+    }
+}
@@ -0,0 +1,107 @@
+package site.randomvideo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import site.randomvideo.management.PasswordHashingMetersService;
+
+/**
+ * Test class for the {@link BoundedPasswordEncoder}.
+ */
+class BoundedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PasswordHashingMetersService metersService;
+
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        metersService = new PasswordHashingMetersService(meterRegistry);
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        metersService.monitorQueue(executor.getQueue());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testEncodeAndMatchOnTheExecutor() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor, 5000, metersService);
+
+        String hash = encoder.encode("password");
+
+        assertThat(encoder.matches("password", hash)).isTrue();
+        assertThat(encoder.matches("other", hash)).isFalse();
+        assertThat(meterRegistry.get(PasswordHashingMetersService.HASH_METER_NAME).tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(PasswordHashingMetersService.HASH_METER_NAME).tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(PasswordHashingMetersService.WAIT_METER_NAME).timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testUpgradeEncodingWhenTheStrengthIncreases() {
+        String hash = new BCryptPasswordEncoder(4).encode("password");
+
+        assertThat(new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor, 5000, metersService).upgradeEncoding(hash)).isFalse();
+        assertThat(new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), executor, 5000, metersService).upgradeEncoding(hash)).isTrue();
+    }
+
+    @Test
+    void testRejectWhenTheQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        started.await();
+        executor.execute(() -> awaitQuietly(release));
+
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor, 5000, metersService);
+
+        assertThat(meterRegistry.get(PasswordHashingMetersService.QUEUE_METER_NAME).gauge().value()).isEqualTo(1);
+        assertThatThrownBy(() -> encoder.encode("password")).isInstanceOf(PasswordHashingUnavailableException.class);
+        assertThat(meterRegistry.get(PasswordHashingMetersService.REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void testRejectAfterTheTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor, 50, metersService);
+
+        assertThatThrownBy(() -> encoder.encode("password")).isInstanceOf(PasswordHashingUnavailableException.class);
+        assertThat(meterRegistry.get(PasswordHashingMetersService.REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void testDelegateExceptionIsRethrown() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor, 5000, metersService);
+
+        assertThatThrownBy(() -> encoder.encode(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package site.randomvideo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+/**
+ * Test class for the {@link CachingJwtDecoder}.
+ */
+class CachingJwtDecoderTest {
+
+    private JwtDecoder delegate;
+
+    @BeforeEach
+    void setup() {
+        delegate = mock(JwtDecoder.class);
+    }
+
+    @Test
+    void testValidTokenIsVerifiedOnce() {
+        when(delegate.decode("token")).thenReturn(jwt("token", Instant.now().plusSeconds(600)));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10);
+
+        Jwt first = decoder.decode("token");
+        Jwt second = decoder.decode("token");
+
+        assertThat(second).isSameAs(first);
+        verify(delegate, times(1)).decode("token");
+    }
+
+    @Test
+    void testExpiredCachedTokenIsDecodedAgain() {
+        // expired past the clock skew of 60 seconds allowed by the default validators
+        when(delegate.decode("token"))
+            .thenReturn(jwt("token", Instant.now().minusSeconds(120)))
+            .thenThrow(new JwtValidationException("Jwt expired at", List.of(new OAuth2Error("invalid_token"))));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10);
+
+        decoder.decode("token");
+
+        assertThatThrownBy(() -> decoder.decode("token")).isInstanceOf(JwtValidationException.class);
+        verify(delegate, times(2)).decode("token");
+        assertThat(decoder.size()).isZero();
+    }
+
+    @Test
+    void testRejectedTokenIsNotCached() {
+        when(delegate.decode("token")).thenThrow(new BadJwtException("Invalid signature"));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10);
+
+        assertThatThrownBy(() -> decoder.decode("token")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("token")).isInstanceOf(BadJwtException.class);
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        when(delegate.decode(anyString())).thenAnswer(invocation -> jwt(invocation.getArgument(0), Instant.now().plusSeconds(600)));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 3);
+
+        for (int i = 0; i < 10; i++) {
+            decoder.decode("token" + i);
+        }
+
+        assertThat(decoder.size()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void testDisabledCache() {
+        when(delegate.decode("token")).thenReturn(jwt("token", Instant.now().plusSeconds(600)));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 0);
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+        assertThat(decoder.size()).isZero();
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt
+            .withTokenValue(token)
+            .header("alg", "HS512")
+            .subject("user")
+            .issuedAt(expiresAt.minusSeconds(3600))
+            .expiresAt(expiresAt)
+            .build();
+    }
+}
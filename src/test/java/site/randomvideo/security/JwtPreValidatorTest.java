@@ -0,0 +1,97 @@
+package site.randomvideo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static site.randomvideo.security.SecurityUtils.JWT_ALGORITHM;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.util.Base64;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+/**
+ * Test class for the {@link JwtPreValidator}.
+ */
+class JwtPreValidatorTest {
+
+    private static final String KEY =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private static final String OTHER_KEY =
+        "Xfd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private final JwtPreValidator preValidator = new JwtPreValidator(JWT_ALGORITHM.getName());
+
+    @Test
+    void testValidTokenPasses() {
+        assertThat(preValidator.check(token(KEY, JWT_ALGORITHM, Instant.now().plusSeconds(60)))).isEqualTo(JwtPreValidator.Outcome.PASSED);
+    }
+
+    @Test
+    void testMalformedTokens() {
+        String token = token(KEY, JWT_ALGORITHM, Instant.now().plusSeconds(60));
+        assertThat(preValidator.check(null)).isEqualTo(JwtPreValidator.Outcome.MALFORMED);
+        assertThat(preValidator.check("")).isEqualTo(JwtPreValidator.Outcome.MALFORMED);
+        assertThat(preValidator.check("0123456789abcdef")).isEqualTo(JwtPreValidator.Outcome.MALFORMED);
+        assertThat(preValidator.check(token.substring(1))).isEqualTo(JwtPreValidator.Outcome.MALFORMED);
+        assertThat(preValidator.check(token.substring(0, token.lastIndexOf('.') + 1))).isEqualTo(JwtPreValidator.Outcome.MALFORMED);
+        assertThat(preValidator.check(token.replace('.', '+'))).isEqualTo(JwtPreValidator.Outcome.MALFORMED);
+        assertThat(preValidator.check(segment("{\"alg\":\"HS512\"}") + "." + segment("not json") + ".c2ln"))
+            .isEqualTo(JwtPreValidator.Outcome.MALFORMED);
+    }
+
+    @Test
+    void testUnsupportedTokens() {
+        assertThat(preValidator.check(token(KEY, MacAlgorithm.HS256, Instant.now().plusSeconds(60))))
+            .isEqualTo(JwtPreValidator.Outcome.UNSUPPORTED);
+        assertThat(preValidator.check("a.b.c.d.e")).isEqualTo(JwtPreValidator.Outcome.UNSUPPORTED);
+    }
+
+    @Test
+    void testExpiredTokenIsRejectedAfterClockSkew() {
+        assertThat(preValidator.check(token(KEY, JWT_ALGORITHM, Instant.now().minusSeconds(600)))).isEqualTo(JwtPreValidator.Outcome.EXPIRED);
+        assertThat(preValidator.check(token(KEY, JWT_ALGORITHM, Instant.now().minusSeconds(10)))).isEqualTo(JwtPreValidator.Outcome.PASSED);
+    }
+
+    @Test
+    void testClassifyDecoderExceptions() {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(secretKey(KEY)).macAlgorithm(JWT_ALGORITHM).build();
+
+        assertThat(classify(decoder, token(OTHER_KEY, JWT_ALGORITHM, Instant.now().plusSeconds(60))))
+            .isEqualTo(JwtPreValidator.Outcome.INVALID_SIGNATURE);
+        assertThat(classify(decoder, token(KEY, JWT_ALGORITHM, Instant.now().minusSeconds(600)))).isEqualTo(JwtPreValidator.Outcome.EXPIRED);
+        assertThat(classify(decoder, "0123456789abcdef")).isEqualTo(JwtPreValidator.Outcome.MALFORMED);
+        assertThat(JwtPreValidator.classify(new JwtPreValidator.RejectedJwtException(JwtPreValidator.Outcome.UNSUPPORTED)))
+            .isEqualTo(JwtPreValidator.Outcome.UNSUPPORTED);
+    }
+
+    private static JwtPreValidator.Outcome classify(NimbusJwtDecoder decoder, String token) {
+        return JwtPreValidator.classify(catchThrowableOfType(() -> decoder.decode(token), JwtException.class));
+    }
+
+    private static String token(String key, MacAlgorithm algorithm, Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder().issuedAt(expiresAt.minusSeconds(60)).expiresAt(expiresAt).subject("anonymous").build();
+        return new NimbusJwtEncoder(new ImmutableSecret<>(secretKey(key)))
+            .encode(JwtEncoderParameters.from(JwsHeader.with(algorithm).build(), claims))
+            .getTokenValue();
+    }
+
+    private static SecretKey secretKey(String key) {
+        byte[] keyBytes = Base64.from(key).decode();
+        return new SecretKeySpec(keyBytes, 0, keyBytes.length, JWT_ALGORITHM.getName());
+    }
+
+    private static String segment(String json) {
+        return java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
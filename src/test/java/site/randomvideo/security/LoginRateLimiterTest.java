@@ -0,0 +1,120 @@
+package site.randomvideo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import site.randomvideo.config.ApplicationProperties;
+import site.randomvideo.management.SecurityMetersService;
+
+/**
+ * Test class for the {@link LoginRateLimiter}.
+ */
+class LoginRateLimiterTest {
+
+    private static final String IP = "192.0.2.1";
+
+    private final MutableClock clock = new MutableClock();
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LoginRateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getLoginRateLimit().setIpCapacity(3);
+        applicationProperties.getLoginRateLimit().setIpRefillPerMinute(1);
+        applicationProperties.getLoginRateLimit().setLoginCapacity(2);
+        applicationProperties.getLoginRateLimit().setLoginRefillPerMinute(1);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new LoginRateLimiter(applicationProperties, new SecurityMetersService(meterRegistry), clock);
+    }
+
+    @Test
+    void testIpBucketEmptiesThenRefills() {
+        assertThat(rateLimiter.tryAcquire(IP, null)).isTrue();
+        assertThat(rateLimiter.tryAcquire(IP, null)).isTrue();
+        assertThat(rateLimiter.tryAcquire(IP, null)).isTrue();
+        assertThat(rateLimiter.tryAcquire(IP, null)).isFalse();
+        assertThat(rateLimiter.tryAcquire("192.0.2.2", null)).isTrue();
+
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(rateLimiter.tryAcquire(IP, null)).isFalse();
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(rateLimiter.tryAcquire(IP, null)).isTrue();
+
+        assertThat(rateLimitedCount("ip")).isEqualTo(2);
+    }
+
+    @Test
+    void testLoginBucketIsSharedAcrossIpsAndCase() {
+        assertThat(rateLimiter.tryAcquire("192.0.2.1", "user")).isTrue();
+        assertThat(rateLimiter.tryAcquire("192.0.2.2", "USER")).isTrue();
+        assertThat(rateLimiter.tryAcquire("192.0.2.3", "User")).isFalse();
+        assertThat(rateLimiter.tryAcquire("192.0.2.3", "other")).isTrue();
+
+        assertThat(rateLimitedCount("login")).isEqualTo(1);
+    }
+
+    @Test
+    void testDisabled() {
+        applicationProperties.getLoginRateLimit().setEnabled(false);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire(IP, "user")).isTrue();
+        }
+        assertThat(rateLimiter.size()).isZero();
+    }
+
+    @Test
+    void testRemoveFullBuckets() {
+        rateLimiter.tryAcquire(IP, "user");
+        rateLimiter.removeFullBuckets();
+        assertThat(rateLimiter.size()).isEqualTo(2);
+
+        clock.advance(Duration.ofMinutes(1));
+        rateLimiter.removeFullBuckets();
+        assertThat(rateLimiter.size()).isZero();
+    }
+
+    private double rateLimitedCount(String key) {
+        return meterRegistry
+            .get(SecurityMetersService.RATE_LIMITED_METER_NAME)
+            .tag(SecurityMetersService.RATE_LIMITED_METER_KEY_DIMENSION, key)
+            .counter()
+            .count();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -13,6 +13,8 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 
 /**
  * Test class for the {@link SecurityUtils} utility class.
@@ -43,6 +45,23 @@ class SecurityUtilsUnitTest {
         assertThat(jwt).contains("token");
     }
 
+    @Test
+    void testGetCurrentXUserId() {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "HS512").subject("admin").claim(SecurityUtils.XUSER_ID_KEY, 42L).build();
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new JwtAuthenticationToken(jwt));
+        SecurityContextHolder.setContext(securityContext);
+        assertThat(SecurityUtils.getCurrentXUserId()).contains(42L);
+    }
+
+    @Test
+    void testGetCurrentXUserIdWithoutClaim() {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        SecurityContextHolder.setContext(securityContext);
+        assertThat(SecurityUtils.getCurrentXUserId()).isEmpty();
+    }
+
     @Test
     void testIsAuthenticated() {
         SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
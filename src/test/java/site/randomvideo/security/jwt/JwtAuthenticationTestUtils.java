@@ -12,6 +12,7 @@ import java.util.Collections;
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import org.mockito.Mockito;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.security.oauth2.jwt.JwsHeader;
@@ -20,6 +21,10 @@ import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
+import site.randomvideo.config.ApplicationProperties;
+import site.randomvideo.management.SecurityMetersService;
+import site.randomvideo.security.LoginRateLimiter;
+import site.randomvideo.service.XUserService;
 
 public class JwtAuthenticationTestUtils {
 
@@ -35,6 +40,18 @@ public class JwtAuthenticationTestUtils {
         return new SimpleMeterRegistry();
     }
 
+    @Bean
+    private XUserService xUserService() {
+        return Mockito.mock(XUserService.class);
+    }
+
+    @Bean
+    private LoginRateLimiter loginRateLimiter(SecurityMetersService securityMetersService) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getLoginRateLimit().setEnabled(false);
+        return new LoginRateLimiter(applicationProperties, securityMetersService);
+    }
+
     public static String createValidToken(String jwtKey) {
         return createValidTokenForUser(jwtKey, "anonymous");
     }
@@ -0,0 +1,144 @@
+package site.randomvideo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import site.randomvideo.config.ApplicationProperties;
+import tech.jhipster.config.JHipsterProperties;
+
+class MailOutboxServiceTest {
+
+    private JavaMailSender javaMailSender;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private List<MimeMessage> createdMessages;
+
+    private MailOutboxService mailOutboxService;
+
+    @BeforeEach
+    public void setup() {
+        javaMailSender = mock(JavaMailSender.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        createdMessages = new ArrayList<>();
+        when(javaMailSender.createMimeMessage())
+            .thenAnswer(invocation -> {
+                MimeMessage message = new MimeMessage((Session) null);
+                createdMessages.add(message);
+                return message;
+            });
+
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setFrom("randomvideo@localhost");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMailOutbox().setMaxAttempts(3);
+        applicationProperties.getMailOutbox().setRetryBackoffSeconds(30);
+        applicationProperties.getMailOutbox().setMaxRetryBackoffSeconds(100);
+        mailOutboxService =
+            new MailOutboxService(
+                jHipsterProperties,
+                applicationProperties,
+                javaMailSender,
+                jdbcTemplate,
+                transactionManager,
+                new SyncTaskExecutor()
+            );
+    }
+
+    @Test
+    void testBatchIsSentOverOneConnection() {
+        mailOutboxService.send(List.of(mail(1, 0), mail(2, 0), mail(3, 0)));
+
+        verify(javaMailSender).send(any(MimeMessage.class), any(MimeMessage.class), any(MimeMessage.class));
+        verify(javaMailSender, never()).send(any(MimeMessage.class));
+        assertThat(batchUpdate("DELETE")).extracting(args -> args[0]).containsExactlyInAnyOrder(1L, 2L, 3L);
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE"), anyList());
+    }
+
+    @Test
+    void testOnlyFailedMessagesAreRetried() {
+        doAnswer(invocation -> {
+                throw new MailSendException(Map.of(createdMessages.get(1), new MessagingException("Mailbox unavailable")));
+            })
+            .when(javaMailSender)
+            .send(any(MimeMessage.class), any(MimeMessage.class), any(MimeMessage.class));
+
+        mailOutboxService.send(List.of(mail(1, 0), mail(2, 1), mail(3, 0)));
+
+        assertThat(batchUpdate("DELETE")).extracting(args -> args[0]).containsExactlyInAnyOrder(1L, 3L);
+        List<Object[]> retries = batchUpdate("UPDATE");
+        assertThat(retries).hasSize(1);
+        // attempts, next attempt, last error, id
+        assertThat(retries.get(0)[0]).isEqualTo(2);
+        assertThat((String) retries.get(0)[2]).contains("Mailbox unavailable");
+        assertThat(retries.get(0)[3]).isEqualTo(2L);
+    }
+
+    @Test
+    void testConnectionFailureRetriesWholeBatch() {
+        doThrow(new MailSendException("Connection refused")).when(javaMailSender).send(any(MimeMessage.class));
+
+        mailOutboxService.send(List.of(mail(1, 0)));
+
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("DELETE"), anyList());
+        assertThat(batchUpdate("UPDATE")).extracting(args -> args[3]).containsExactly(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEnqueueAllWritesOneBatchThenPollsOutbox() {
+        List<MailOutboxService.Email> emails = List.of(
+            new MailOutboxService.Email("user1@example.com", "subject", "content", false, true),
+            new MailOutboxService.Email("user2@example.com", "subject", "content", false, true)
+        );
+
+        mailOutboxService.enqueueAll(emails);
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), eq(emails), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).query(startsWith("SELECT"), any(RowMapper.class), any(), any(), any());
+    }
+
+    @Test
+    void testRetryBackoffIsExponentialAndCapped() {
+        assertThat(mailOutboxService.retryBackoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(mailOutboxService.retryBackoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(mailOutboxService.retryBackoff(3)).isEqualTo(Duration.ofSeconds(100));
+        assertThat(mailOutboxService.retryBackoff(100)).isEqualTo(Duration.ofSeconds(100));
+    }
+
+    private static MailOutboxService.OutboxMail mail(long id, int attempts) {
+        return new MailOutboxService.OutboxMail(id, "user" + id + "@example.com", "subject", "content", false, false, attempts);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> batchUpdate(String statement) {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith(statement), captor.capture());
+        return captor.getValue();
+    }
+}
@@ -16,6 +16,7 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -185,6 +186,42 @@ class MailServiceIT {
         assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
     }
 
+    @Test
+    void testRenderEmailsFromTemplate() {
+        User john = new User();
+        john.setLangKey("en");
+        john.setLogin("john");
+        john.setEmail("john.doe@example.com");
+        User noEmail = new User();
+        noEmail.setLangKey("en");
+        noEmail.setLogin("noemail");
+        User jean = new User();
+        jean.setLangKey("fr");
+        jean.setLogin("jean");
+        jean.setEmail("jean.dupont@example.com");
+
+        List<MailOutboxService.Email> emails = mailService.renderEmailsFromTemplate(List.of(john, noEmail, jean), "mail/testEmail", "email.test.title");
+
+        assertThat(emails).extracting(MailOutboxService.Email::to).containsExactly("john.doe@example.com", "jean.dupont@example.com");
+        assertThat(emails.get(0).subject()).isEqualTo("test title");
+        assertThat(emails.get(0).content()).isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, john</html>\n");
+        assertThat(emails.get(1).content()).contains("jean");
+        assertThat(emails).allMatch(MailOutboxService.Email::isHtml);
+    }
+
+    @Test
+    void testSendEmailsFromTemplate() throws Exception {
+        User user = new User();
+        user.setLangKey(Constants.DEFAULT_LANGUAGE);
+        user.setLogin("john");
+        user.setEmail("john.doe@example.com");
+        assertThat(mailService.sendEmailsFromTemplate(List.of(user), "mail/testEmail", "email.test.title")).isEqualTo(1);
+        verify(javaMailSender).send(messageCaptor.capture());
+        MimeMessage message = messageCaptor.getValue();
+        assertThat(message.getSubject()).isEqualTo("test title");
+        assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
+    }
+
     @Test
     void testSendEmailWithException() {
         doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
@@ -0,0 +1,54 @@
+package site.randomvideo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SeededPermutationTest {
+
+    @Test
+    void indexesFormAPermutation() {
+        for (int size : new int[] { 1, 2, 3, 7, 64, 100, 5000 }) {
+            SeededPermutation permutation = new SeededPermutation(42L, size);
+            Set<Integer> indexes = new HashSet<>();
+            for (int position = 0; position < size; position++) {
+                int index = permutation.indexAt(position);
+                assertThat(index).isBetween(0, size - 1);
+                indexes.add(index);
+            }
+            assertThat(indexes).hasSize(size);
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameOrder() {
+        SeededPermutation first = new SeededPermutation(7L, 500);
+        SeededPermutation second = new SeededPermutation(7L, 500);
+        for (int position = 0; position < 500; position++) {
+            assertThat(first.indexAt(position)).isEqualTo(second.indexAt(position));
+        }
+    }
+
+    @Test
+    void differentSeedsGiveDifferentOrders() {
+        SeededPermutation first = new SeededPermutation(1L, 500);
+        SeededPermutation second = new SeededPermutation(2L, 500);
+        int samePositions = 0;
+        for (int position = 0; position < 500; position++) {
+            if (first.indexAt(position) == second.indexAt(position)) {
+                samePositions++;
+            }
+        }
+        assertThat(samePositions).isLessThan(500);
+    }
+
+    @Test
+    void rejectsOutOfRangePositions() {
+        SeededPermutation permutation = new SeededPermutation(1L, 10);
+        assertThatThrownBy(() -> permutation.indexAt(10)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> permutation.indexAt(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -1,16 +1,22 @@
 package site.randomvideo.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
 import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,16 +24,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import site.randomvideo.IntegrationTest;
+import site.randomvideo.domain.Video;
 import site.randomvideo.domain.VideoList;
+import site.randomvideo.domain.XUser;
+import site.randomvideo.repository.UserRepository;
 import site.randomvideo.repository.VideoListRepository;
+import site.randomvideo.repository.XUserRepository;
+import site.randomvideo.service.VideoListService;
 
 /**
  * Integration tests for the {@link VideoListResource} REST controller.
@@ -56,6 +69,18 @@ class VideoListResourceIT {
     @Mock
     private VideoListRepository videoListRepositoryMock;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private XUserRepository xUserRepository;
+
+    @Autowired
+    private VideoListService videoListService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private EntityManager em;
 
@@ -89,6 +114,8 @@ class VideoListResourceIT {
     @BeforeEach
     public void initTest() {
         videoList = createEntity(em);
+        // the XUser of the logged-in user is created by each test, and rolled back after it
+        cacheManager.getCache(XUserRepository.XUSER_IDS_BY_LOGIN_CACHE).clear();
     }
 
     @Test
@@ -209,6 +236,186 @@ class VideoListResourceIT {
             .andExpect(jsonPath("$.slug").value(DEFAULT_SLUG));
     }
 
+    @Test
+    @Transactional
+    void getVideosByVideoListSlugIsCachedBySlug() throws Exception {
+        // Initialize the database
+        Video video = VideoResourceIT.createEntity(em);
+        em.persist(video);
+        videoList.addVideo(video);
+        videoListRepository.saveAndFlush(videoList);
+        cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE).evict(DEFAULT_SLUG);
+
+        // Get the videos of the videoList
+        restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}", DEFAULT_SLUG))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(video.getId().intValue())))
+            .andExpect(jsonPath("$.[*].url").value(hasItem(video.getUrl())));
+
+        assertThat(cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE).get(DEFAULT_SLUG)).isNotNull();
+        cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE).evict(DEFAULT_SLUG);
+    }
+
+    @Test
+    @Transactional
+    void getVideosByVideoListSlugReloadsOutdatedCacheEntry() throws Exception {
+        // Initialize the database
+        Video video = VideoResourceIT.createEntity(em);
+        em.persist(video);
+        videoList.addVideo(video);
+        videoListRepository.saveAndFlush(videoList);
+        cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE).evict(DEFAULT_SLUG);
+        restVideoListMockMvc.perform(get(ENTITY_API_URL + "/by-slug/{slug}", DEFAULT_SLUG)).andExpect(status().isOk());
+
+        // A new version, as if the cache entry had been put back by a read that started before the change
+        Video secondVideo = VideoResourceIT.createEntity(em);
+        em.persist(secondVideo);
+        videoList.addVideo(secondVideo);
+        videoListRepository.saveAndFlush(videoList);
+        videoListService.videosChanged(List.of(videoList.getId()), List.of());
+
+        restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}", DEFAULT_SLUG))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2));
+        cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE).evict(DEFAULT_SLUG);
+    }
+
+    @Test
+    @Transactional
+    void getVideosByVideoListSlugGzipped() throws Exception {
+        // Initialize the database
+        Video video = VideoResourceIT.createEntity(em);
+        em.persist(video);
+        videoList.addVideo(video);
+        videoListRepository.saveAndFlush(videoList);
+        cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE).evict(DEFAULT_SLUG);
+
+        byte[] body = restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}", DEFAULT_SLUG).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(JsonPath.<List<Integer>>read(json, "$.[*].id")).containsExactly(video.getId().intValue());
+        }
+        cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE).evict(DEFAULT_SLUG);
+    }
+
+    @Test
+    @Transactional
+    void getVideosByVideoListSlugNotModified() throws Exception {
+        // Initialize the database
+        Video video = VideoResourceIT.createEntity(em);
+        em.persist(video);
+        videoList.addVideo(video);
+        videoListRepository.saveAndFlush(videoList);
+        cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE).evict(DEFAULT_SLUG);
+
+        String eTag = restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}", DEFAULT_SLUG))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Same version, with the cache entry and without it
+        restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}", DEFAULT_SLUG).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+        cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE).evict(DEFAULT_SLUG);
+        restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}", DEFAULT_SLUG).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // Any version
+        restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}", DEFAULT_SLUG).header(HttpHeaders.IF_NONE_MATCH, "*"))
+            .andExpect(status().isNotModified());
+
+        // A new version
+        videoListService.videosChanged(List.of(videoList.getId()), List.of());
+        restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}", DEFAULT_SLUG).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+        cacheManager.getCache(VideoListRepository.VIDEOS_BY_SLUG_CACHE).evict(DEFAULT_SLUG);
+    }
+
+    @Test
+    @Transactional
+    void getRandomVideosByVideoListSlug() throws Exception {
+        // Initialize the database
+        Video video = VideoResourceIT.createEntity(em);
+        em.persist(video);
+        videoList.addVideo(video);
+        videoListRepository.saveAndFlush(videoList);
+
+        // Get a random video of the videoList
+        restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}/random?count=5", DEFAULT_SLUG))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(video.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getRandomVideosByEmptyVideoListSlug() throws Exception {
+        // Initialize the database
+        videoListRepository.saveAndFlush(videoList);
+
+        restVideoListMockMvc.perform(get(ENTITY_API_URL + "/by-slug/{slug}/random", DEFAULT_SLUG)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getPlaybackPagesByVideoListSlug() throws Exception {
+        // Initialize the database
+        Video first = VideoResourceIT.createEntity(em);
+        Video second = VideoResourceIT.createEntity(em);
+        em.persist(first);
+        em.persist(second);
+        videoList.addVideo(first);
+        videoList.addVideo(second);
+        videoListRepository.saveAndFlush(videoList);
+
+        // Start a playback session with a single video per page
+        String response = restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}/playback?size=1", DEFAULT_SLUG))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(2))
+            .andExpect(jsonPath("$.videos.length()").value(1))
+            .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        String cursor = JsonPath.read(response, "$.nextCursor");
+
+        // The second page ends the session
+        restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}/playback?size=1&cursor={cursor}", DEFAULT_SLUG, cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.videos.length()").value(1))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getPlaybackPageWithInvalidCursor() throws Exception {
+        restVideoListMockMvc
+            .perform(get(ENTITY_API_URL + "/by-slug/{slug}/playback?cursor=not-a-cursor", DEFAULT_SLUG))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingVideoList() throws Exception {
@@ -246,6 +453,105 @@ class VideoListResourceIT {
         assertThat(testVideoList.getSlug()).isEqualTo(UPDATED_SLUG);
     }
 
+    @Test
+    @Transactional
+    void putOwnedVideoListReplacesItsVideos() throws Exception {
+        // Initialize the database
+        XUser xUser = new XUser().internalUser(userRepository.findOneByLogin("user").get());
+        em.persist(xUser);
+        Video first = VideoResourceIT.createEntity(em);
+        first.setXUser(xUser);
+        em.persist(first);
+        Video second = VideoResourceIT.createEntity(em);
+        second.setXUser(xUser);
+        em.persist(second);
+        Video third = VideoResourceIT.createEntity(em);
+        third.setXUser(xUser);
+        em.persist(third);
+        videoList.setXUser(xUser);
+        videoList.addVideo(first).addVideo(second);
+        videoListRepository.saveAndFlush(videoList);
+        long contentVersion = videoListRepository.findContentVersionBySlug(DEFAULT_SLUG).get().getContentVersion();
+        em.clear();
+
+        VideoList updatedVideoList = new VideoList().id(videoList.getId()).name(UPDATED_NAME).slug(UPDATED_SLUG);
+        updatedVideoList.addVideo(new Video().id(second.getId())).addVideo(new Video().id(third.getId()));
+
+        // The persisted video list is returned
+        restVideoListMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, videoList.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedVideoList))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME))
+            .andExpect(jsonPath("$.slug").value(UPDATED_SLUG))
+            .andExpect(jsonPath("$.videos[*].id").value(containsInAnyOrder(second.getId().intValue(), third.getId().intValue())))
+            .andExpect(jsonPath("$.videos[*].url").value(hasItem(VideoResourceIT.createEntity(em).getUrl())));
+
+        assertThat(videoListRepository.findVideoIdsByVideoListId(videoList.getId())).containsExactly(second.getId(), third.getId());
+        // The content version is bumped once for the whole update
+        assertThat(videoListRepository.findContentVersionBySlug(UPDATED_SLUG).get().getContentVersion()).isEqualTo(contentVersion + 1);
+    }
+
+    @Test
+    @Transactional
+    void addAndRemoveVideosOfVideoList() throws Exception {
+        // Initialize the database
+        XUser xUser = new XUser().internalUser(userRepository.findOneByLogin("user").get());
+        em.persist(xUser);
+        Video first = VideoResourceIT.createEntity(em);
+        first.setXUser(xUser);
+        em.persist(first);
+        Video second = VideoResourceIT.createEntity(em);
+        second.setXUser(xUser);
+        em.persist(second);
+        Video othersVideo = VideoResourceIT.createEntity(em);
+        em.persist(othersVideo);
+        videoList.setXUser(xUser);
+        videoList.addVideo(first);
+        videoListRepository.saveAndFlush(videoList);
+
+        restVideoListMockMvc
+            .perform(
+                post(ENTITY_API_URL_ID + "/videos", videoList.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(first.getId(), second.getId(), othersVideo.getId())))
+            )
+            .andExpect(status().isNoContent());
+
+        // The video already in the list and the video of another user are skipped
+        assertThat(videoListRepository.findVideoIdsByVideoListId(videoList.getId())).containsExactly(first.getId(), second.getId());
+
+        restVideoListMockMvc
+            .perform(
+                delete(ENTITY_API_URL_ID + "/videos", videoList.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(first.getId())))
+            )
+            .andExpect(status().isNoContent());
+
+        assertThat(videoListRepository.findVideoIdsByVideoListId(videoList.getId())).containsExactly(second.getId());
+    }
+
+    @Test
+    @Transactional
+    void addVideosToVideoListOfAnotherUser() throws Exception {
+        // Initialize the database
+        videoList.setXUser(xUserRepository.saveAndFlush(new XUser()));
+        videoListRepository.saveAndFlush(videoList);
+        em.persist(new XUser().internalUser(userRepository.findOneByLogin("user").get()));
+
+        restVideoListMockMvc
+            .perform(
+                post(ENTITY_API_URL_ID + "/videos", videoList.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(1L)))
+            )
+            .andExpect(status().isForbidden());
+    }
+
     @Test
     @Transactional
     void putNonExistingVideoList() throws Exception {
@@ -424,6 +730,13 @@ class VideoListResourceIT {
     @Transactional
     void deleteVideoList() throws Exception {
         // Initialize the database
+        XUser xUser = new XUser().internalUser(userRepository.findOneByLogin("user").get());
+        em.persist(xUser);
+        Video video = VideoResourceIT.createEntity(em);
+        video.setXUser(xUser);
+        em.persist(video);
+        videoList.setXUser(xUser);
+        videoList.addVideo(video);
         videoListRepository.saveAndFlush(videoList);
 
         int databaseSizeBeforeDelete = videoListRepository.findAll().size();
@@ -436,5 +749,6 @@ class VideoListResourceIT {
         // Validate the database contains one less item
         List<VideoList> videoListList = videoListRepository.findAll();
         assertThat(videoListList).hasSize(databaseSizeBeforeDelete - 1);
+        assertThat(videoListRepository.findSlugsByVideoId(video.getId())).isEmpty();
     }
 }
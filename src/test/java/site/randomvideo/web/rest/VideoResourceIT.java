@@ -1,6 +1,7 @@
 package site.randomvideo.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -13,13 +14,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import site.randomvideo.IntegrationTest;
 import site.randomvideo.domain.Video;
+import site.randomvideo.domain.XUser;
+import site.randomvideo.repository.UserRepository;
 import site.randomvideo.repository.VideoRepository;
+import site.randomvideo.repository.XUserRepository;
+import site.randomvideo.security.AuthoritiesConstants;
+import site.randomvideo.service.NdjsonExportService;
+import site.randomvideo.service.XUserService;
+import site.randomvideo.web.rest.vm.BulkVideosVM;
 
 /**
  * Integration tests for the {@link VideoResource} REST controller.
@@ -44,6 +54,15 @@ class VideoResourceIT {
     @Autowired
     private VideoRepository videoRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private XUserRepository xUserRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private EntityManager em;
 
@@ -77,6 +96,8 @@ class VideoResourceIT {
     @BeforeEach
     public void initTest() {
         video = createEntity(em);
+        // the XUser of the logged-in user is created by each test, and rolled back after it
+        cacheManager.getCache(XUserRepository.XUSER_IDS_BY_LOGIN_CACHE).clear();
     }
 
     @Test
@@ -96,6 +117,25 @@ class VideoResourceIT {
         assertThat(testVideo.getName()).isEqualTo(DEFAULT_NAME);
     }
 
+    @Test
+    @Transactional
+    void createVideoOverLimit() throws Exception {
+        XUser xUser = createLoggedInXUser();
+        em.flush();
+        em
+            .createNativeQuery("update x_user set video_count = :count where id = :id")
+            .setParameter("count", XUserService.MAX_VIDEOS_PER_USER)
+            .setParameter("id", xUser.getId())
+            .executeUpdate();
+        int databaseSizeBeforeCreate = videoRepository.findAll().size();
+
+        restVideoMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(video)))
+            .andExpect(status().isBadRequest());
+
+        assertThat(videoRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     @Transactional
     void createVideoWithExistingId() throws Exception {
@@ -148,6 +188,43 @@ class VideoResourceIT {
         assertThat(videoList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    @Transactional
+    void bulkCreateVideos() throws Exception {
+        int databaseSizeBeforeCreate = videoRepository.findAll().size();
+        BulkVideosVM bulkVideos = new BulkVideosVM();
+        bulkVideos.setVideos(List.of(createEntity(em), createUpdatedEntity(em)));
+        bulkVideos.setDump("https://www.youtube.com/watch?v=dQw4w9WgXcQ Never Gonna Give You Up\nnot a video\nhttps://youtu.be/9bZkp7q19f0\n");
+
+        restVideoMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bulkVideos))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.created").value(4));
+
+        List<Video> videoList = videoRepository.findAll();
+        assertThat(videoList).hasSize(databaseSizeBeforeCreate + 4);
+        assertThat(videoList).extracting(Video::getName).contains(DEFAULT_NAME, UPDATED_NAME, "Never Gonna Give You Up", "9bZkp7q19f0");
+    }
+
+    @Test
+    @Transactional
+    void bulkCreateVideosWithInvalidVideo() throws Exception {
+        int databaseSizeBeforeCreate = videoRepository.findAll().size();
+        BulkVideosVM bulkVideos = new BulkVideosVM();
+        bulkVideos.setVideos(List.of(createEntity(em), createEntity(em).url("https://example.com")));
+
+        restVideoMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bulkVideos))
+            )
+            .andExpect(status().isBadRequest());
+
+        // Nothing is written when any video is invalid
+        assertThat(videoRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     @Transactional
     void getAllVideos() throws Exception {
@@ -164,6 +241,54 @@ class VideoResourceIT {
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
     }
 
+    @Test
+    @Transactional
+    void getAllVideosByKeyset() throws Exception {
+        // Initialize the database
+        videoRepository.saveAndFlush(video);
+        Video other = videoRepository.saveAndFlush(createEntity(em));
+
+        // Get the page right after the first video
+        restVideoMockMvc
+            .perform(get(ENTITY_API_URL + "?afterId={afterId}&size=1", video.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(other.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("afterId=" + other.getId())));
+    }
+
+    @Test
+    @Transactional
+    void getAllVideosWithInvalidSize() throws Exception {
+        restVideoMockMvc.perform(get(ENTITY_API_URL + "?size=0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void exportAllVideos() throws Exception {
+        // Initialize the database
+        videoRepository.saveAndFlush(video);
+
+        String export = restVideoMockMvc
+            .perform(get(ENTITY_API_URL).accept(NdjsonExportService.APPLICATION_NDJSON_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(NdjsonExportService.APPLICATION_NDJSON_VALUE))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertThat(export.lines()).hasSize((int) videoRepository.count()).anyMatch(line -> line.contains(DEFAULT_NAME));
+    }
+
+    @Test
+    @Transactional
+    void exportAllVideosIsForAdminsOnly() throws Exception {
+        restVideoMockMvc
+            .perform(get(ENTITY_API_URL).accept(NdjsonExportService.APPLICATION_NDJSON_VALUE))
+            .andExpect(status().isForbidden());
+    }
+
     @Test
     @Transactional
     void getVideo() throws Exception {
@@ -391,7 +516,10 @@ class VideoResourceIT {
     @Transactional
     void deleteVideo() throws Exception {
         // Initialize the database
+        video.setXUser(createLoggedInXUser());
         videoRepository.saveAndFlush(video);
+        em.persist(VideoListResourceIT.createEntity(em).addVideo(video));
+        em.flush();
 
         int databaseSizeBeforeDelete = videoRepository.findAll().size();
 
@@ -404,4 +532,44 @@ class VideoResourceIT {
         List<Video> videoList = videoRepository.findAll();
         assertThat(videoList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void deleteVideoOfAnotherUser() throws Exception {
+        // Initialize the database
+        createLoggedInXUser();
+        video.setXUser(xUserRepository.saveAndFlush(new XUser()));
+        videoRepository.saveAndFlush(video);
+
+        restVideoMockMvc
+            .perform(delete(ENTITY_API_URL_ID, video.getId()).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isForbidden());
+
+        assertThat(videoRepository.existsById(video.getId())).isTrue();
+    }
+
+    @Test
+    @Transactional
+    void putVideoOfAnotherUser() throws Exception {
+        // Initialize the database
+        createLoggedInXUser();
+        video.setXUser(xUserRepository.saveAndFlush(new XUser()));
+        videoRepository.saveAndFlush(video);
+
+        Video updatedVideo = createUpdatedEntity(em).id(video.getId());
+        restVideoMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, video.getId()).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(updatedVideo))
+            )
+            .andExpect(status().isForbidden());
+
+        em.clear();
+        assertThat(videoRepository.findById(video.getId())).get().extracting(Video::getName).isEqualTo(DEFAULT_NAME);
+    }
+
+    private XUser createLoggedInXUser() {
+        XUser xUser = new XUser().internalUser(userRepository.findOneByLogin("user").get());
+        em.persist(xUser);
+        return xUser;
+    }
 }
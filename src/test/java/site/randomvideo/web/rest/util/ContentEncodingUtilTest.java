@@ -0,0 +1,41 @@
+package site.randomvideo.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link ContentEncodingUtil} utility class.
+ */
+class ContentEncodingUtilTest {
+
+    @Test
+    void testAcceptsListedGzip() {
+        assertThat(ContentEncodingUtil.acceptsGzip("gzip")).isTrue();
+        assertThat(ContentEncodingUtil.acceptsGzip("deflate, GZIP;q=0.5, br")).isTrue();
+        assertThat(ContentEncodingUtil.acceptsGzip("x-gzip")).isTrue();
+    }
+
+    @Test
+    void testRefusesGzipWithZeroQuality() {
+        assertThat(ContentEncodingUtil.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ContentEncodingUtil.acceptsGzip("gzip; q=0.000, deflate")).isFalse();
+        assertThat(ContentEncodingUtil.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(ContentEncodingUtil.acceptsGzip("gzip;q=invalid")).isFalse();
+    }
+
+    @Test
+    void testAcceptsGzipThroughWildcard() {
+        assertThat(ContentEncodingUtil.acceptsGzip("*")).isTrue();
+        assertThat(ContentEncodingUtil.acceptsGzip("*;q=0")).isFalse();
+        assertThat(ContentEncodingUtil.acceptsGzip("*;q=0, gzip")).isTrue();
+    }
+
+    @Test
+    void testRefusesGzipWhenNotListed() {
+        assertThat(ContentEncodingUtil.acceptsGzip(null)).isFalse();
+        assertThat(ContentEncodingUtil.acceptsGzip("")).isFalse();
+        assertThat(ContentEncodingUtil.acceptsGzip("identity")).isFalse();
+        assertThat(ContentEncodingUtil.acceptsGzip("deflate, br")).isFalse();
+    }
+}